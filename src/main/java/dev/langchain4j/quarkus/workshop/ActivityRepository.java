@@ -5,12 +5,15 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
 @ApplicationScoped
 public class ActivityRepository implements PanacheRepository<Activity> {
 
+    private static final int MAX_MATCHES = 5;
+
     @Inject
     ProjectRepository projectRepository;
 
@@ -20,11 +23,13 @@ public class ActivityRepository implements PanacheRepository<Activity> {
         return findAll().list();
     }
 
-    @Tool("Retrieves a specific activity by its name and the associated project name. Both parameters are case-insensitive. Returns the Activity object if found. Throws ActivityNotFoundException if no activity with the given name exists in the specified project.")
+    @Tool("Retrieves a specific activity by its name and the associated project name. Both parameters are case-insensitive. Returns the Activity object if found. Throws ActivityNotFoundException if no activity with the given name exists in the specified project; use searchActivitiesByName to find the closest names then.")
     @Transactional
     public Activity getActivityByName(String activityName, String projectName) {
         return find("lower(name)=?1 and lower(project.name)=?2",
-                activityName.toLowerCase(), projectName.toLowerCase()).firstResultOptional().orElseThrow(
+                activityName.toLowerCase(), projectName.toLowerCase())
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .firstResultOptional().orElseThrow(
                 () -> new Exceptions.ActivityNotFoundException(activityName));
     }
 
@@ -34,4 +39,30 @@ public class ActivityRepository implements PanacheRepository<Activity> {
         var project = projectRepository.findProjectByName(projectName);
         return list("project.id=?1", project.id);
     }
+
+    @Tool("Finds the activities whose name is most similar to the given name, tolerating typos, abbreviations and partial names (e.g. 'backend dev' for 'Backend Development'). Parameters: activityName (the full or partial activity name as the user wrote it), and projectName (optional, full or partial; pass an empty string to search all projects). Returns up to 5 ActivityMatch objects containing id, name, projectName and score (similarity between 0 and 1, higher is better), best match first. The list will be empty if no name is similar enough. Prefer this over listAllActivities when getActivityByName fails.")
+    @Transactional
+    public List<ActivityMatch> searchActivitiesByName(String activityName, String projectName) {
+        boolean anyProject = projectName == null || projectName.isBlank();
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+                        select a.id, a.name, p.name,
+                               greatest(similarity(lower(a.name), ?1), word_similarity(?1, lower(a.name))) as score
+                        from Activity a join Project p on p.id = a.project_id
+                        where (lower(a.name) % ?1 or ?1 <% lower(a.name))
+                          and (?2 or lower(p.name) % ?3 or ?3 <% lower(p.name))
+                        order by score desc""")
+                .setParameter(1, activityName.toLowerCase())
+                .setParameter(2, anyProject)
+                .setParameter(3, anyProject ? "" : projectName.toLowerCase())
+                .setMaxResults(MAX_MATCHES)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new ActivityMatch(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        ((Number) row[3]).doubleValue()))
+                .toList();
+    }
+
+    public record ActivityMatch(Long id, String name, String projectName, double score) {
+    }
 }
@@ -0,0 +1,158 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which chat messages reach {@link CustomerSupportAgent}, so one chatty client or stuck retry loop cannot
+ * take the LLM and database capacity of everyone else.
+ * <p>
+ * Each message has to pass a per-session token bucket ({@code agent.rate-limit.session.*}) and a global one
+ * ({@code agent.rate-limit.global.*}). A session runs one turn at a time; messages arriving meanwhile wait in a
+ * queue of at most {@code agent.queue.max-size} messages. When the queue is full, a message is either appended to
+ * the last queued one ({@code agent.queue.overflow=coalesce}) or rejected ({@code reject}).
+ */
+@ApplicationScoped
+public class ChatAdmission {
+
+    public enum Outcome {
+        /** The caller runs the turn, then keeps running the queued messages returned by {@link #next(String)}. */
+        RUN,
+        /** Queued behind the running turn. */
+        QUEUED,
+        /** Merged into the last queued message. */
+        COALESCED,
+        REJECTED_SESSION_RATE,
+        REJECTED_GLOBAL_RATE,
+        REJECTED_QUEUE_FULL
+    }
+
+    private final int sessionBurst;
+    private final double sessionPerSecond;
+    private final int maxQueued;
+    private final boolean coalesce;
+    private final TokenBucket global;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Map<Outcome, Counter> rejected;
+
+    public ChatAdmission(@ConfigProperty(name = "agent.rate-limit.session.burst", defaultValue = "5") int sessionBurst,
+                         @ConfigProperty(name = "agent.rate-limit.session.per-minute", defaultValue = "20") int sessionPerMinute,
+                         @ConfigProperty(name = "agent.rate-limit.global.burst", defaultValue = "50") int globalBurst,
+                         @ConfigProperty(name = "agent.rate-limit.global.per-second", defaultValue = "10") int globalPerSecond,
+                         @ConfigProperty(name = "agent.queue.max-size", defaultValue = "1") int maxQueued,
+                         @ConfigProperty(name = "agent.queue.overflow", defaultValue = "coalesce") String overflow,
+                         MeterRegistry registry) {
+        if (!overflow.equals("coalesce") && !overflow.equals("reject")) {
+            throw new IllegalArgumentException("agent.queue.overflow must be coalesce or reject, not " + overflow);
+        }
+        this.sessionBurst = sessionBurst;
+        this.sessionPerSecond = sessionPerMinute / 60d;
+        this.maxQueued = maxQueued;
+        this.coalesce = overflow.equals("coalesce");
+        this.global = new TokenBucket(globalBurst, globalPerSecond);
+        this.coalesced = registry.counter("agent.messages.coalesced");
+        this.rejected = Map.of(
+                Outcome.REJECTED_SESSION_RATE, registry.counter("agent.messages.rejected", "reason", "session-rate"),
+                Outcome.REJECTED_GLOBAL_RATE, registry.counter("agent.messages.rejected", "reason", "global-rate"),
+                Outcome.REJECTED_QUEUE_FULL, registry.counter("agent.messages.rejected", "reason", "queue-full"));
+        registry.gauge("agent.queue.depth", sessions, all -> all.values().stream().mapToInt(Session::queued).sum());
+        registry.gauge("agent.turns.active", sessions, all -> all.values().stream().filter(Session::running).count());
+    }
+
+    /**
+     * Admits a message of the given session. Only on {@link Outcome#RUN} may the caller pass it to the agent.
+     */
+    public Outcome offer(String sessionId, String message) {
+        Session session = sessions.computeIfAbsent(sessionId, id -> new Session(new TokenBucket(sessionBurst, sessionPerSecond)));
+        if (!session.bucket.tryAcquire()) {
+            return reject(Outcome.REJECTED_SESSION_RATE);
+        }
+        if (!global.tryAcquire()) {
+            session.bucket.release();
+            return reject(Outcome.REJECTED_GLOBAL_RATE);
+        }
+        synchronized (session) {
+            if (!session.running) {
+                session.running = true;
+                return Outcome.RUN;
+            }
+            if (session.pending.size() < maxQueued) {
+                session.pending.addLast(message);
+                return Outcome.QUEUED;
+            }
+            if (coalesce && !session.pending.isEmpty()) {
+                session.pending.addLast(session.pending.removeLast() + "\n" + message);
+                coalesced.increment();
+                return Outcome.COALESCED;
+            }
+        }
+        session.bucket.release();
+        global.release();
+        return reject(Outcome.REJECTED_QUEUE_FULL);
+    }
+
+    /**
+     * Returns the next queued message of the session once its running turn completed, or {@code null} if there is
+     * none, in which case the session accepts a new turn.
+     */
+    public String next(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            String message = session.pending.pollFirst();
+            session.running = message != null;
+            return message;
+        }
+    }
+
+    /**
+     * Drops the queued messages of a session whose turn failed, so it accepts new turns again.
+     */
+    public void abort(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            synchronized (session) {
+                session.pending.clear();
+                session.running = false;
+            }
+        }
+    }
+
+    public void close(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    private Outcome reject(Outcome outcome) {
+        rejected.get(outcome).increment();
+        return outcome;
+    }
+
+    private static final class Session {
+
+        private final TokenBucket bucket;
+        private final Deque<String> pending = new ArrayDeque<>();
+        private boolean running;
+
+        Session(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        synchronized int queued() {
+            return pending.size();
+        }
+
+        synchronized boolean running() {
+            return running;
+        }
+    }
+}
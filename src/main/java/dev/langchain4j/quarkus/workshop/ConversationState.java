@@ -0,0 +1,73 @@
+package dev.langchain4j.quarkus.workshop;
+
+/**
+ * What {@link TurnToolProvider} knows about a conversation, kept in the {@link SessionStore} next to its chat memory
+ * so the conversation can continue on any instance. The identified person and the name the user introduced themselves
+ * with are only known to the instance serving the conversation.
+ */
+public class ConversationState {
+
+    private boolean identified;
+    private boolean correcting;
+    private String person;
+    private String claimedName;
+
+    public ConversationState() {
+    }
+
+    ConversationState(boolean identified, boolean correcting) {
+        this.identified = identified;
+        this.correcting = correcting;
+    }
+
+    public boolean isIdentified() {
+        return identified;
+    }
+
+    public void identified() {
+        identified = true;
+    }
+
+    /**
+     * Marks the user as identified as the given person, e.g. "Mick Doe".
+     */
+    public void identified(String person) {
+        identified();
+        this.person = person;
+    }
+
+    /**
+     * The person the user was identified as on this instance, or null.
+     */
+    public String person() {
+        return person;
+    }
+
+    /**
+     * Records the full name the user introduced themselves with, e.g. "Mick Doe", before it is known to exist.
+     */
+    void claimed(String name) {
+        claimedName = name;
+    }
+
+    /**
+     * The full name the user last introduced themselves with on this instance, or null.
+     */
+    String claimedName() {
+        return claimedName;
+    }
+
+    public boolean isCorrecting() {
+        return correcting;
+    }
+
+    /**
+     * Whether the correction tools are offered in this turn: from the first turn the user asks for a correction on.
+     * They stay offered for the rest of the session, so the tool definitions at the start of each request change
+     * at most twice per session and the provider can keep serving the prompt prefix from its cache.
+     */
+    public boolean correcting(boolean correctionRequested) {
+        correcting |= correctionRequested;
+        return correcting;
+    }
+}
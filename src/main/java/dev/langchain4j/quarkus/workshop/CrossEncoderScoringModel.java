@@ -0,0 +1,84 @@
+package dev.langchain4j.quarkus.workshop;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.djl.util.PairList;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores (query, segment) pairs with a local ONNX cross-encoder such as {@code ms-marco-MiniLM-L-6-v2}, so the
+ * fused retrieval candidates can be re-ranked without a call to a remote service. All candidates of a query are
+ * scored in one batched inference.
+ */
+class CrossEncoderScoringModel implements ScoringModel, AutoCloseable {
+
+    private final OrtEnvironment environment;
+    private final OrtSession session;
+    private final HuggingFaceTokenizer tokenizer;
+
+    CrossEncoderScoringModel(Path model, Path tokenizer, int intraOpThreads) throws OrtException, IOException {
+        this.environment = OrtEnvironment.getEnvironment();
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        options.setIntraOpNumThreads(intraOpThreads);
+        options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+        this.session = environment.createSession(model.toString(), options);
+        this.tokenizer = HuggingFaceTokenizer.newInstance(tokenizer, Map.of("padding", "true", "truncation", "true"));
+    }
+
+    @Override
+    public Response<List<Double>> scoreAll(List<TextSegment> segments, String query) {
+        if (segments.isEmpty()) {
+            return Response.from(List.of());
+        }
+        PairList<String, String> pairs = new PairList<>(segments.size());
+        segments.forEach(segment -> pairs.add(query, segment.text()));
+        Encoding[] encodings = tokenizer.batchEncode(pairs);
+        long[][] ids = new long[encodings.length][];
+        long[][] attentionMask = new long[encodings.length][];
+        long[][] typeIds = new long[encodings.length][];
+        for (int i = 0; i < encodings.length; i++) {
+            ids[i] = encodings[i].getIds();
+            attentionMask[i] = encodings[i].getAttentionMask();
+            typeIds[i] = encodings[i].getTypeIds();
+        }
+        try (OnnxTensor idsTensor = OnnxTensor.createTensor(environment, ids);
+             OnnxTensor maskTensor = OnnxTensor.createTensor(environment, attentionMask);
+             OnnxTensor typesTensor = OnnxTensor.createTensor(environment, typeIds)) {
+            Map<String, OnnxTensor> inputs = new HashMap<>();
+            inputs.put("input_ids", idsTensor);
+            inputs.put("attention_mask", maskTensor);
+            if (session.getInputNames().contains("token_type_ids")) {
+                inputs.put("token_type_ids", typesTensor);
+            }
+            try (OrtSession.Result result = session.run(inputs)) {
+                float[][] logits = (float[][]) result.get(0).getValue();
+                List<Double> scores = new ArrayList<>(logits.length);
+                for (float[] logit : logits) {
+                    scores.add((double) logit[0]);
+                }
+                return Response.from(scores);
+            }
+        } catch (OrtException e) {
+            throw new IllegalStateException("Re-ranking failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws OrtException {
+        tokenizer.close();
+        session.close();
+    }
+}
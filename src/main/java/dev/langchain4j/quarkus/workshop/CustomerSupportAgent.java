@@ -1,13 +1,16 @@
 package dev.langchain4j.quarkus.workshop;
 
+import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
 import io.quarkiverse.langchain4j.RegisterAiService;
-import io.quarkiverse.langchain4j.ToolBox;
 import jakarta.decorator.Decorator;
-import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.context.ApplicationScoped;
 
-@SessionScoped
-@RegisterAiService
+// The chat memory of each session lives in the SessionStore, keyed by the session token
+@ApplicationScoped
+// The tools of the repositories are offered per turn by TurnToolProvider
+@RegisterAiService(toolProviderSupplier = RegisterAiService.BeanIfExistsToolProviderSupplier.class)
 public interface CustomerSupportAgent {
 
     @SystemMessage("""
@@ -43,8 +46,7 @@ public interface CustomerSupportAgent {
             - Structure responses with headings and bullet points for readability
 
             ## System Context
-            Today is {current_date}.
+            Today's date is given at the end of each user message.
             """)
-    @ToolBox({ActivityRepository.class, PersonRepository.class, ProjectRepository.class, ReportedTimeRepository.class})
-    String chat(String userMessage);
+    String chat(@MemoryId String sessionToken, @UserMessage String userMessage);
 }
@@ -1,27 +1,104 @@
 package dev.langchain4j.quarkus.workshop;
 
+import io.quarkus.websockets.next.OnClose;
 import io.quarkus.websockets.next.OnOpen;
 import io.quarkus.websockets.next.OnTextMessage;
 import io.quarkus.websockets.next.WebSocket;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The chat endpoint of {@link CustomerSupportAgent}. The first frame sent on a connection is
+ * {@value #SESSION_PREFIX} followed by the session token; a client that reconnects with
+ * {@code /timereport-agent?session=<token>} continues that conversation, on whichever instance it lands.
+ */
 @WebSocket(path = "/timereport-agent")
 public class CustomerSupportAgentWebSocket {
 
+    static final String SESSION_PREFIX = "session:";
+    private static final String SESSION_PARAM = "session=";
+
     private final CustomerSupportAgent customerSupportAgent;
+    private final ChatAdmission admission;
+    private final SessionStore sessions;
+    private final TurnToolProvider toolProvider;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
 
-    public CustomerSupportAgentWebSocket(CustomerSupportAgent customerSupportAgent) {
+    public CustomerSupportAgentWebSocket(CustomerSupportAgent customerSupportAgent, ChatAdmission admission,
+                                         SessionStore sessions, TurnToolProvider toolProvider) {
         this.customerSupportAgent = customerSupportAgent;
+        this.admission = admission;
+        this.sessions = sessions;
+        this.toolProvider = toolProvider;
     }
 
     @OnOpen
-    public String onOpen() {
-        return "Welcome to RegisterTimely! How can I help you today?";
+    @RunOnVirtualThread
+    public String onOpen(WebSocketConnection connection) {
+        String token = requestedToken(connection.handshakeRequest().query());
+        boolean resumed = SessionTokens.isValid(token) && sessions.exists(token);
+        if (!resumed) {
+            token = sessions.create();
+        }
+        tokens.put(connection.id(), token);
+        connection.sendTextAndAwait(SESSION_PREFIX + token);
+        return resumed
+                ? "Welcome back to RegisterTimely! Let's continue where we left off."
+                : "Welcome to RegisterTimely! How can I help you today?";
     }
 
     // --8<-- [start:tools]
     @OnTextMessage
-    public String onTextMessage(String message) {
-        return customerSupportAgent.chat(message);
+    @RunOnVirtualThread
+    public void onTextMessage(String message, WebSocketConnection connection) {
+        switch (admission.offer(connection.id(), message)) {
+            case RUN -> converse(message, connection);
+            case QUEUED, COALESCED -> {
+                // answered by the turn already running for this connection
+            }
+            case REJECTED_SESSION_RATE -> connection.sendTextAndAwait(
+                    "You are sending messages faster than I can answer them. Please wait a moment before sending the next one.");
+            case REJECTED_GLOBAL_RATE -> connection.sendTextAndAwait(
+                    "I am very busy right now. Please send your message again in a few seconds.");
+            case REJECTED_QUEUE_FULL -> connection.sendTextAndAwait(
+                    "I am still working on your previous message. Please wait for my answer before sending the next one.");
+        }
     }
     // --8<-- [end:tools]
+
+    @OnClose
+    public void onClose(WebSocketConnection connection) {
+        admission.close(connection.id());
+        String token = tokens.remove(connection.id());
+        if (token != null) {
+            toolProvider.forget(token);
+        }
+    }
+
+    private static String requestedToken(String query) {
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith(SESSION_PARAM)) {
+                    return param.substring(SESSION_PARAM.length());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void converse(String message, WebSocketConnection connection) {
+        String token = tokens.get(connection.id());
+        try {
+            while (message != null) {
+                connection.sendTextAndAwait(customerSupportAgent.chat(token, message));
+                message = admission.next(connection.id());
+            }
+        } catch (RuntimeException e) {
+            admission.abort(connection.id());
+            throw e;
+        }
+    }
 }
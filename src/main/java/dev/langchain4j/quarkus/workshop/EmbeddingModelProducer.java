@@ -0,0 +1,182 @@
+package dev.langchain4j.quarkus.workshop;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.AbstractInProcessEmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.OnnxBertBiEncoder;
+import dev.langchain4j.model.embedding.onnx.PoolingMode;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Produces;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces the in-process BGE-Small-EN-Quantized embedding model shared by {@link RagIngestion} and
+ * {@link RagRetriever}, with the ONNX threading sized to the pod instead of the ONNX defaults.
+ * <p>
+ * Segments of a batch are embedded in parallel on {@code embedding.parallelism} threads (default: available
+ * processors), each running single inferences with {@code embedding.onnx.intra-op-threads} threads (default: 1),
+ * so embedding never uses more threads than the pod has cores. Concurrent queries are coalesced into batched
+ * inferences by {@link MicroBatchingEmbeddingModel} unless {@code embedding.batching.enabled} is false.
+ */
+@ApplicationScoped
+public class EmbeddingModelProducer {
+
+    static final String MODEL = "bge-small-en-q.onnx";
+    static final String TOKENIZER = "bge-small-en-q-tokenizer.json";
+    private static final int DIMENSION = 384;
+
+    @Produces
+    @ApplicationScoped
+    @Alternative
+    @Priority(1)
+    public EmbeddingModel create(@ConfigProperty(name = "embedding.onnx.intra-op-threads", defaultValue = "1") int intraOpThreads,
+                                 @ConfigProperty(name = "embedding.parallelism") Optional<Integer> parallelism,
+                                 @ConfigProperty(name = "embedding.batching.enabled", defaultValue = "true") boolean batching,
+                                 @ConfigProperty(name = "embedding.batching.max-size", defaultValue = "16") int maxBatchSize,
+                                 @ConfigProperty(name = "embedding.batching.max-delay", defaultValue = "2ms") Duration maxDelay,
+                                 MeterRegistry registry) throws OrtException, IOException {
+        long start = System.nanoTime();
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        options.setIntraOpNumThreads(intraOpThreads);
+        options.setInterOpNumThreads(1);
+        options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+        OrtSession session = environment.createSession(read(MODEL), options);
+        OnnxBertBiEncoder encoder = new OnnxBertBiEncoder(environment, session, open(TOKENIZER), PoolingMode.CLS);
+
+        int threads = parallelism.orElse(Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().daemon().name("embedding-", 0).factory());
+        Timer latency = Timer.builder("rag.embedding.duration")
+                .description("Time to embed a batch of text segments")
+                .publishPercentileHistogram()
+                .register(registry);
+        Log.infof("Embedding model loaded in %d ms (%d threads, %d intra-op threads each)",
+                (System.nanoTime() - start) / 1_000_000, threads, intraOpThreads);
+        InstrumentedEmbeddingModel model = new InstrumentedEmbeddingModel(encoder, session, executor, latency);
+        if (!batching) {
+            return model;
+        }
+        DistributionSummary batchSizes = DistributionSummary.builder("rag.embedding.batch.size")
+                .description("Number of concurrent queries embedded in one inference")
+                .register(registry);
+        return new MicroBatchingEmbeddingModel(model,
+                new MicroBatchingEmbeddingModel.BatchEncoder(environment, session, open(TOKENIZER)),
+                maxBatchSize, maxDelay, executor, latency, batchSizes);
+    }
+
+    /**
+     * Stops the batching dispatcher and the inference threads and releases the native ONNX session, so a
+     * restart in dev mode or tests doesn't leak them.
+     */
+    void close(@Disposes EmbeddingModel model) throws Exception {
+        if (model instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Loads the model and runs a few inferences at startup, so the first user query neither pays for model
+     * initialization nor runs through cold code paths. With {@code embedding.loading=lazy} the model is loaded
+     * on first use instead, which is the default when {@code rag.ingestion.enabled} is false and nothing needs
+     * the model at startup.
+     */
+    void warmUp(@Observes StartupEvent ev, EmbeddingModel model,
+                @ConfigProperty(name = "embedding.loading") Optional<String> loading,
+                @ConfigProperty(name = "rag.ingestion.enabled", defaultValue = "true") boolean ingestion,
+                @ConfigProperty(name = "embedding.warm-up.iterations", defaultValue = "20") int iterations) {
+        if ("lazy".equalsIgnoreCase(loading.orElse(ingestion ? "eager" : "lazy"))) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            model.embed("How many hours may I work per week according to Swedish law?");
+        }
+        Log.infof("Embedding model warmed up in %d ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static byte[] read(String resource) {
+        try (InputStream in = open(resource)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static InputStream open(String resource) {
+        // Read the files from the model jar directly: touching BgeSmallEnQuantizedEmbeddingModel would load
+        // a second copy of the model with default session options in its static initializer
+        InputStream in = EmbeddingModelProducer.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Embedding model resource %s not found".formatted(resource));
+        }
+        return in;
+    }
+
+    static class InstrumentedEmbeddingModel extends AbstractInProcessEmbeddingModel implements AutoCloseable {
+
+        private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+        private final OnnxBertBiEncoder encoder;
+        private final OrtSession session;
+        private final ExecutorService executor;
+        private final Timer latency;
+
+        InstrumentedEmbeddingModel(OnnxBertBiEncoder encoder, OrtSession session, ExecutorService executor, Timer latency) {
+            super(executor);
+            this.encoder = encoder;
+            this.session = session;
+            this.executor = executor;
+            this.latency = latency;
+        }
+
+        @Override
+        protected OnnxBertBiEncoder model() {
+            return encoder;
+        }
+
+        @Override
+        protected Integer knownDimension() {
+            return DIMENSION;
+        }
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            return latency.record(() -> super.embedAll(segments));
+        }
+
+        @Override
+        public void close() throws OrtException, InterruptedException {
+            // Let running inferences finish before their session goes away
+            executor.shutdown();
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                Log.warnf("Embedding threads did not stop within %s", SHUTDOWN_TIMEOUT);
+                executor.shutdownNow();
+            }
+            session.close();
+        }
+    }
+}
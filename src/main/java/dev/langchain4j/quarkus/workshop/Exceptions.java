@@ -19,5 +19,31 @@ public class Exceptions {
             super("Activity %s not found".formatted(activityName));
         }
     }
+
+    public static class IdempotencyKeyConflictException extends RuntimeException {
+        public IdempotencyKeyConflictException(String idempotencyKey) {
+            super("Idempotency key %s was already used for a different time entry".formatted(idempotencyKey));
+        }
+    }
+
+    public static class ReportedTimeNotFoundException extends RuntimeException {
+        public ReportedTimeNotFoundException(long id) {
+            super("Time entry %d not found".formatted(id));
+        }
+    }
+
+    public static class ReportedTimeVersionConflictException extends RuntimeException {
+        public ReportedTimeVersionConflictException(long id, long version) {
+            super("Time entry %d was changed by someone else since version %d; list it again before changing it"
+                    .formatted(id, version));
+        }
+    }
+
+    public static class ImportFailedException extends RuntimeException {
+        public ImportFailedException(long row, long imported, RuntimeException cause) {
+            super("Import failed at row %d: %s (the first %d rows were imported)".formatted(row, cause.getMessage(), imported),
+                    cause);
+        }
+    }
     
 }
@@ -0,0 +1,45 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the published events to {@code outbox.file.path} as JSON lines, e.g.
+ * {@code {"eventId":12,"createdAt":"2025-03-17T08:00:00Z","change":{"type":"CREATED","id":42,...}}}, and forces
+ * them to disk before the relay removes them from the outbox. Enabled with {@code outbox.sink=file}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "outbox.sink", stringValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    @ConfigProperty(name = "outbox.file.path", defaultValue = "outbox.jsonl")
+    Path path;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append("{\"eventId\":").append(event.id)
+                    .append(",\"createdAt\":\"").append(event.createdAt)
+                    .append("\",\"change\":").append(event.payload)
+                    .append("}\n");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
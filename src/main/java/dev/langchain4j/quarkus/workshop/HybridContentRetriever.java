@@ -0,0 +1,138 @@
+package dev.langchain4j.quarkus.workshop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import io.agroal.api.AgroalDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retrieves segments both by Postgres full-text search over the ingested text and by pgvector similarity, and
+ * fuses the two rankings with reciprocal-rank fusion. The lexical side finds exact terms and section numbers the
+ * embedding glosses over; the vector side finds paraphrases.
+ */
+class HybridContentRetriever implements ContentRetriever {
+
+    /** The usual RRF constant: dampens the weight of the very first ranks. */
+    private static final int RRF_K = 60;
+
+    static final String TEXT_SEARCH_CONFIG = "english";
+
+    private static final ObjectReader METADATA_READER = new ObjectMapper().readerFor(Map.class);
+
+    private final EmbeddingStore<TextSegment> store;
+    private final EmbeddingModel model;
+    private final AgroalDataSource dataSource;
+    private final String lexicalQuery;
+    private final int candidates;
+    private final int maxResults;
+
+    HybridContentRetriever(EmbeddingStore<TextSegment> store, EmbeddingModel model, AgroalDataSource dataSource,
+                           String table, int candidates, int maxResults) {
+        this.store = store;
+        this.model = model;
+        this.dataSource = dataSource;
+        // plainto_tsquery ANDs the words of the question, which a segment rarely contains all of; OR the normalized
+        // words instead and let the rank favour the segments that match the most of them. Each word is quoted, with
+        // quotes and backslashes doubled, so it is read back as a single lexeme whatever characters it contains
+        this.lexicalQuery = """
+                select embedding_id, text, metadata
+                from %s, (select string_agg('''' || replace(replace(word, '\\', '\\\\'), '''', '''''') || '''', ' | ')::tsquery as query
+                          from unnest(tsvector_to_array(to_tsvector('%s', ?))) word) words
+                where to_tsvector('%s', text) @@ words.query
+                order by ts_rank_cd(to_tsvector('%s', text), words.query) desc
+                limit ?""".formatted(table, TEXT_SEARCH_CONFIG, TEXT_SEARCH_CONFIG, TEXT_SEARCH_CONFIG);
+        this.candidates = candidates;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<Content> retrieve(Query query) {
+        Map<String, Ranked> fused = new LinkedHashMap<>();
+        List<EmbeddingMatch<TextSegment>> vectorMatches = vectorSearch(query.text());
+        for (int rank = 0; rank < vectorMatches.size(); rank++) {
+            EmbeddingMatch<TextSegment> match = vectorMatches.get(rank);
+            fused.computeIfAbsent(match.embeddingId(), id -> new Ranked(match.embedded())).add(rank);
+        }
+        List<Hit> lexicalHits = lexicalSearch(query.text());
+        for (int rank = 0; rank < lexicalHits.size(); rank++) {
+            Hit hit = lexicalHits.get(rank);
+            fused.computeIfAbsent(hit.id(), id -> new Ranked(hit.segment())).add(rank);
+        }
+        return fused.values().stream()
+                .sorted(Comparator.comparingDouble(Ranked::score).reversed())
+                .limit(maxResults)
+                .map(ranked -> Content.from(ranked.segment))
+                .toList();
+    }
+
+    private List<EmbeddingMatch<TextSegment>> vectorSearch(String text) {
+        Embedding embedding = model.embed(text).content();
+        return store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(embedding)
+                .maxResults(candidates)
+                .build()).matches();
+    }
+
+    private List<Hit> lexicalSearch(String text) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(lexicalQuery)) {
+            statement.setString(1, text);
+            statement.setInt(2, candidates);
+            List<Hit> hits = new ArrayList<>(candidates);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(new Hit(rs.getString(1), TextSegment.from(rs.getString(2), metadata(rs.getString(3)))));
+                }
+            }
+            return hits;
+        } catch (SQLException | JsonProcessingException e) {
+            throw new IllegalStateException("Full-text search over the embedding store failed", e);
+        }
+    }
+
+    private static Metadata metadata(String json) throws JsonProcessingException {
+        // The store keeps the metadata as one JSON object, as the vector matches return it
+        return json == null ? new Metadata() : Metadata.from(METADATA_READER.<Map<String, Object>>readValue(json));
+    }
+
+    private record Hit(String id, TextSegment segment) {
+    }
+
+    private static final class Ranked {
+
+        private final TextSegment segment;
+        private double score;
+
+        Ranked(TextSegment segment) {
+            this.segment = segment;
+        }
+
+        void add(int rank) {
+            score += 1.0 / (RRF_K + rank + 1);
+        }
+
+        double score() {
+            return score;
+        }
+    }
+}
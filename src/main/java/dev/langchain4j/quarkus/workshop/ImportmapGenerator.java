@@ -0,0 +1,51 @@
+package dev.langchain4j.quarkus.workshop;
+
+import org.mvnpm.importmap.Aggregator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds the import map from the mvnpm web dependencies on the classpath.
+ * <p>
+ * The Maven build runs {@link #main(String[])} in the {@code process-classes} phase and stores the result as
+ * {@value #RESOURCE}, so the application only has to read a file at startup instead of scanning the classpath.
+ */
+public class ImportmapGenerator {
+
+    static final String RESOURCE = "importmap/importmap.json";
+
+    public static void main(String[] args) throws IOException {
+        Path target = Path.of(args[0]).resolve(RESOURCE);
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, aggregate(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the import map generated at build time, or aggregates it now if the build step did not run
+     * (e.g. when launched from an IDE).
+     */
+    static String load() {
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return aggregate();
+    }
+
+    static String aggregate() {
+        Aggregator aggregator = new Aggregator();
+        // Add our own mappings
+        aggregator.addMapping("icons/", "/icons/");
+        aggregator.addMapping("components/", "/components/");
+        aggregator.addMapping("fonts/", "/fonts/");
+        return aggregator.aggregateAsJson();
+    }
+}
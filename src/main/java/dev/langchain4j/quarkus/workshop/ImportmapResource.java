@@ -1,45 +1,50 @@
 package dev.langchain4j.quarkus.workshop;
 
+import io.quarkus.runtime.Startup;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
-import org.mvnpm.importmap.Aggregator;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 
 /**
- * Dynamically create the import map
+ * Serves the import map generated at build time by {@link ImportmapGenerator}
  */
+@Startup
 @ApplicationScoped
 @Path("/_importmap")
 public class ImportmapResource {
 
-    private String importmap;
+    private PrecompressedAsset importmap;
+    private PrecompressedAsset importmapJavascript;
 
     // See https://github.com/WICG/import-maps/issues/235
     // This does not seem to be supported by browsers yet...
     @GET
     @Path("/dynamic.importmap")
     @Produces("application/importmap+json")
-    public String importMap() {
-        return this.importmap;
+    public Response importMap(@Context Request request, @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        return this.importmap.serve(request, acceptEncoding);
     }
 
     @GET
     @Path("/dynamic-importmap.js")
     @Produces("application/javascript")
-    public String importMapJson() {
-        return JAVASCRIPT_CODE.formatted(this.importmap);
+    public Response importMapJson(@Context Request request, @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        return this.importmapJavascript.serve(request, acceptEncoding);
     }
 
     @PostConstruct
     void init() {
-        Aggregator aggregator = new Aggregator();
-        // Add our own mappings
-        aggregator.addMapping("icons/", "/icons/");
-        aggregator.addMapping("components/", "/components/");
-        aggregator.addMapping("fonts/", "/fonts/");
-        this.importmap = aggregator.aggregateAsJson();
+        String json = ImportmapGenerator.load();
+        // Render both representations once, they never change while the application runs
+        this.importmap = PrecompressedAsset.of(json);
+        this.importmapJavascript = PrecompressedAsset.of(JAVASCRIPT_CODE.formatted(json));
     }
 
     private static final String JAVASCRIPT_CODE = """
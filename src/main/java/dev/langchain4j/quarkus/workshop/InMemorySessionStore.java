@@ -0,0 +1,83 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.message.ChatMessage;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the sessions in the heap of this instance, for development and single-instance deployments. Sessions survive
+ * reconnects, but not restarts, and cannot move to another instance. Enabled with {@code agent.session.store=memory}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "agent.session.store", stringValue = "memory")
+public class InMemorySessionStore implements SessionStore {
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @ConfigProperty(name = "agent.session.ttl", defaultValue = "12h")
+    Duration ttl;
+
+    @Override
+    public String create() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> now - session.touched > ttl.toNanos());
+        String token = SessionTokens.generate();
+        sessions.put(token, new Session());
+        return token;
+    }
+
+    @Override
+    public boolean exists(String token) {
+        Session session = sessions.get(token);
+        return session != null && System.nanoTime() - session.touched <= ttl.toNanos();
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        Session session = sessions.get(memoryId.toString());
+        return session == null ? List.of() : session.messages;
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        session(memoryId.toString()).messages = List.copyOf(messages);
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        session(memoryId.toString()).messages = List.of();
+    }
+
+    @Override
+    public ConversationState getState(String token) {
+        Session session = sessions.get(token);
+        return session == null ? new ConversationState() : new ConversationState(session.identified, session.correcting);
+    }
+
+    @Override
+    public void updateState(String token, ConversationState state) {
+        Session session = session(token);
+        session.identified = state.isIdentified();
+        session.correcting = state.isCorrecting();
+    }
+
+    private Session session(String token) {
+        Session session = sessions.computeIfAbsent(token, t -> new Session());
+        session.touched = System.nanoTime();
+        return session;
+    }
+
+    private static final class Session {
+
+        private volatile List<ChatMessage> messages = List.of();
+        private volatile boolean identified;
+        private volatile boolean correcting;
+        private volatile long touched = System.nanoTime();
+    }
+}
@@ -0,0 +1,25 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Fires each published {@link OutboxEvent} as a CDI event, for consumers that run inside this application, e.g.
+ * {@code void onPublished(@Observes OutboxEvent event)}. An observer that throws fails the whole batch.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "outbox.sink", stringValue = "file", enableIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    @Inject
+    Event<OutboxEvent> published;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(published::fire);
+    }
+}
@@ -0,0 +1,211 @@
+package dev.langchain4j.quarkus.workshop;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent single-segment embedding requests, typically the queries {@link RagRetriever} embeds for
+ * many sessions at once, into one batched ONNX inference. A batch is dispatched once it holds
+ * {@code maxBatchSize} segments or {@code maxDelay} after its first request arrived, whichever comes first.
+ * <p>
+ * Multi-segment requests (document ingestion) and texts too long for a single model window are passed to the
+ * delegate unchanged, which embeds them segment by segment.
+ */
+class MicroBatchingEmbeddingModel implements EmbeddingModel, AutoCloseable {
+
+    private static final int MAX_TOKENS = 510;
+
+    private final EmbeddingModelProducer.InstrumentedEmbeddingModel delegate;
+    private final BatchEncoder encoder;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Executor executor;
+    private final Timer latency;
+    private final DistributionSummary batchSizes;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    MicroBatchingEmbeddingModel(EmbeddingModelProducer.InstrumentedEmbeddingModel delegate, BatchEncoder encoder,
+                                int maxBatchSize, Duration maxDelay, Executor executor,
+                                Timer latency, DistributionSummary batchSizes) {
+        this.delegate = delegate;
+        this.encoder = encoder;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.executor = executor;
+        this.latency = latency;
+        this.batchSizes = batchSizes;
+        this.dispatcher = Thread.ofPlatform().daemon().name("embedding-batcher").start(this::dispatch);
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+        if (segments.size() != 1 || delegate.estimateTokenCount(segments.getFirst().text()) > MAX_TOKENS) {
+            return delegate.embedAll(segments);
+        }
+        return latency.record(() -> {
+            Pending pending = new Pending(segments.getFirst().text(), new CompletableFuture<>());
+            queue.add(pending);
+            if (closed) {
+                failPending();
+            }
+            try {
+                return Response.from(List.of(pending.result().join()));
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        });
+    }
+
+    @Override
+    public int dimension() {
+        return delegate.dimension();
+    }
+
+    /**
+     * Stops the dispatcher, fails the requests it has not taken yet, and closes the tokenizer and the delegate.
+     */
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        dispatcher.interrupt();
+        dispatcher.join();
+        failPending();
+        encoder.close();
+        delegate.close();
+    }
+
+    private void failPending() {
+        List<Pending> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(request -> request.result().completeExceptionally(
+                new IllegalStateException("The embedding model has been closed")));
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                executor.execute(() -> run(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Hand the requests back, so close() fails them instead of leaving them waiting
+                queue.addAll(batch);
+            }
+        }
+    }
+
+    private void run(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            float[][] vectors = encoder.embed(batch.stream().map(Pending::text).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(Embedding.from(vectors[i]));
+            }
+        } catch (Exception e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private record Pending(String text, CompletableFuture<Embedding> result) {
+    }
+
+    /**
+     * Runs a BERT encoder over a padded batch of texts in one ONNX session call and returns the normalized CLS
+     * vectors, the same pooling the BGE model uses for single texts.
+     */
+    static class BatchEncoder implements AutoCloseable {
+
+        private final OrtEnvironment environment;
+        private final OrtSession session;
+        private final HuggingFaceTokenizer tokenizer;
+
+        BatchEncoder(OrtEnvironment environment, OrtSession session, InputStream tokenizer) throws IOException {
+            this.environment = environment;
+            this.session = session;
+            this.tokenizer = HuggingFaceTokenizer.newInstance(tokenizer, Map.of("padding", "true"));
+        }
+
+        float[][] embed(List<String> texts) throws OrtException {
+            Encoding[] encodings = tokenizer.batchEncode(texts);
+            long[][] ids = new long[encodings.length][];
+            long[][] attentionMask = new long[encodings.length][];
+            long[][] typeIds = new long[encodings.length][];
+            for (int i = 0; i < encodings.length; i++) {
+                ids[i] = encodings[i].getIds();
+                attentionMask[i] = encodings[i].getAttentionMask();
+                typeIds[i] = encodings[i].getTypeIds();
+            }
+            try (OnnxTensor idsTensor = OnnxTensor.createTensor(environment, ids);
+                 OnnxTensor maskTensor = OnnxTensor.createTensor(environment, attentionMask);
+                 OnnxTensor typesTensor = OnnxTensor.createTensor(environment, typeIds)) {
+                Map<String, OnnxTensor> inputs = new HashMap<>();
+                inputs.put("input_ids", idsTensor);
+                inputs.put("attention_mask", maskTensor);
+                if (session.getInputNames().contains("token_type_ids")) {
+                    inputs.put("token_type_ids", typesTensor);
+                }
+                try (OrtSession.Result result = session.run(inputs)) {
+                    float[][][] hiddenStates = (float[][][]) result.get(0).getValue();
+                    float[][] vectors = new float[encodings.length][];
+                    for (int i = 0; i < encodings.length; i++) {
+                        vectors[i] = normalize(hiddenStates[i][0]);
+                    }
+                    return vectors;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            tokenizer.close();
+        }
+
+        private static float[] normalize(float[] vector) {
+            double sumOfSquares = 0;
+            for (float value : vector) {
+                sumOfSquares += value * value;
+            }
+            float norm = (float) Math.sqrt(sumOfSquares);
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= norm;
+            }
+            return vector;
+        }
+    }
+}
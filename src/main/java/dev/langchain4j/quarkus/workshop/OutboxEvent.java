@@ -0,0 +1,31 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.time.Instant;
+
+/**
+ * A {@link ReportedTimeChange} waiting in the outbox to be published by the {@link OutboxRelay}. It is written in the
+ * same transaction as the change itself, so it exists if and only if the change was committed.
+ */
+@Entity
+public class OutboxEvent extends PanacheEntity {
+
+    @Enumerated(EnumType.STRING)
+    ReportedTimeChange.Type type;
+
+    Long reportedTimeId;
+
+    /**
+     * The change as JSON.
+     */
+    @Column(columnDefinition = "text")
+    String payload;
+
+    Instant createdAt;
+
+}
@@ -0,0 +1,48 @@
+package dev.langchain4j.quarkus.workshop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockOptions;
+
+import java.time.Instant;
+import java.util.List;
+
+@ApplicationScoped
+public class OutboxEventRepository implements PanacheRepository<OutboxEvent> {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Appends every change of a time entry to the outbox, within the transaction that makes the change.
+     */
+    void append(@Observes ReportedTimeChange change) {
+        OutboxEvent event = new OutboxEvent();
+        event.type = change.type();
+        event.reportedTimeId = change.id();
+        try {
+            event.payload = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + change, e);
+        }
+        event.createdAt = Instant.now();
+        persist(event);
+    }
+
+    /**
+     * Locks up to {@code max} events that no other relay has locked, lowest id first, so several instances can relay
+     * concurrently. The ids come from a pooled sequence, so this is only roughly the order of the writes.
+     */
+    List<OutboxEvent> lockOldest(int max) {
+        return find("order by id")
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .page(0, max)
+                .list();
+    }
+}
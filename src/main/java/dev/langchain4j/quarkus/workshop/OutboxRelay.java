@@ -0,0 +1,99 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves the events of the outbox to the {@link OutboxSink} in batches of at most {@code outbox.relay.batch-size},
+ * roughly in the order they were written; see {@link OutboxSink} for ordering the changes of an entry. A batch is
+ * removed from the outbox in the transaction that published it; when the outbox is empty the relay polls again
+ * after {@code outbox.relay.interval}. Disabled with {@code outbox.relay.enabled=false}.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    @ConfigProperty(name = "outbox.relay.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "outbox.relay.interval", defaultValue = "1s")
+    Duration interval;
+
+    @ConfigProperty(name = "outbox.relay.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @Inject
+    OutboxEventRepository outbox;
+
+    @Inject
+    OutboxSink sink;
+
+    @Inject
+    MeterRegistry registry;
+
+    private volatile Thread relay;
+
+    void start(@Observes StartupEvent ev) {
+        if (enabled) {
+            relay = Thread.ofVirtual().name("outbox-relay").start(this::run);
+        }
+    }
+
+    void stop(@Observes ShutdownEvent ev) {
+        Thread running = relay;
+        relay = null;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    private void run() {
+        Counter failures = registry.counter("outbox.relay.failures");
+        while (relay != null) {
+            try {
+                if (relay() < batchSize) {
+                    Thread.sleep(interval);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                failures.increment();
+                Log.warn("Could not relay the outbox, retrying", e);
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes and removes one batch of events.
+     *
+     * @return the number of published events
+     */
+    public int relay() {
+        int published = QuarkusTransaction.requiringNew().call(() -> {
+            List<OutboxEvent> batch = outbox.lockOldest(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            sink.publish(batch);
+            outbox.delete("id in ?1", batch.stream().map(event -> event.id).toList());
+            return batch.size();
+        });
+        registry.counter("outbox.events.published").increment(published);
+        return published;
+    }
+}
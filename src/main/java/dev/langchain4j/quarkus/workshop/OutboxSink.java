@@ -0,0 +1,21 @@
+package dev.langchain4j.quarkus.workshop;
+
+import java.util.List;
+
+/**
+ * Where the {@link OutboxRelay} publishes the changes of time entries for downstream systems. The implementation is
+ * chosen at build time with {@code outbox.sink}: {@code in-process} (the default) or {@code file}.
+ * <p>
+ * Delivery is at least once: a batch is published again if the relay fails before it has removed the batch from
+ * the outbox, so consumers should skip event ids they have already seen.
+ * <p>
+ * Event ids come from a pooled sequence, so they do not reflect the commit order, not even across the events of one
+ * time entry. Consumers that need the changes of an entry in order sort them by the {@code version} in the payload.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events. Throwing keeps the batch in the outbox for the next attempt.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
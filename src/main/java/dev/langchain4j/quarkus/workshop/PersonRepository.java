@@ -4,12 +4,15 @@ import dev.langchain4j.agent.tool.Tool;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
 @ApplicationScoped
 public class PersonRepository implements PanacheRepository<Person> {
 
+    private static final int MAX_MATCHES = 5;
+
     @Tool("Retrieves a list of all persons registered in the system. Returns a list of Person objects containing id, firstName, and lastName. The list will be empty if no persons are registered.")
     @Transactional
     public List<Person> listAllPersons() {
@@ -25,9 +28,34 @@ public class PersonRepository implements PanacheRepository<Person> {
         persist(person);
     }
 
-    @Tool("Retrieves a person by their first name and last name. Both parameters are case-insensitive. Returns the Person object if found. Throws PersonNotFoundException if no person with the given first name and last name exists in the system.")
+    @Tool("Retrieves a person by their first name and last name. Both parameters are case-insensitive. Returns the Person object if found. Throws PersonNotFoundException if no person with the given first name and last name exists in the system; use searchPersonsByName to find the closest names then.")
     @Transactional
     public Person findByName(String firstName, String lastName) {
-        return find("lower(firstName) = ?1 and lower(lastName) = ?2", firstName.toLowerCase(), lastName.toLowerCase()).firstResultOptional().orElseThrow(() -> new Exceptions.PersonNotFoundException(firstName, lastName));
+        return find("lower(firstName) = ?1 and lower(lastName) = ?2", firstName.toLowerCase(), lastName.toLowerCase())
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .firstResultOptional().orElseThrow(() -> new Exceptions.PersonNotFoundException(firstName, lastName));
+    }
+
+    @Tool("Finds the persons whose full name is most similar to the given name, tolerating typos, missing letters and partial names (e.g. only a first name). Parameters: name (the full or partial name as the user wrote it). Returns up to 5 PersonMatch objects containing id, firstName, lastName and score (similarity between 0 and 1, higher is better), best match first. The list will be empty if no name is similar enough. Prefer this over listAllPersons when findByName fails.")
+    @Transactional
+    public List<PersonMatch> searchPersonsByName(String name) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+                        select id, firstName, lastName,
+                               greatest(similarity(lower(firstName || ' ' || lastName), ?1),
+                                        word_similarity(?1, lower(firstName || ' ' || lastName))) as score
+                        from Person
+                        where lower(firstName || ' ' || lastName) % ?1 or ?1 <% lower(firstName || ' ' || lastName)
+                        order by score desc""")
+                .setParameter(1, name.toLowerCase())
+                .setMaxResults(MAX_MATCHES)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new PersonMatch(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        ((Number) row[3]).doubleValue()))
+                .toList();
+    }
+
+    public record PersonMatch(Long id, String firstName, String lastName, double score) {
     }
 }
@@ -0,0 +1,142 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the sessions in the {@code agent_session} table of the application's database, one row per session with the
+ * chat memory serialized as JSON, so every instance behind the load balancer can serve every session.
+ * Expired sessions are purged at most once per minute, when a new session is started.
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "agent.session.store", stringValue = "memory", enableIfMissing = true)
+public class PostgresSessionStore implements SessionStore {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "agent.session.ttl", defaultValue = "12h")
+    Duration ttl;
+
+    private volatile long nextPurge = System.nanoTime();
+
+    void createTable(@Observes StartupEvent ev) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table if not exists agent_session (
+                        token varchar(32) primary key,
+                        messages text not null default '[]',
+                        identified boolean not null default false,
+                        correcting boolean not null default false,
+                        updated_at timestamp with time zone not null default now()
+                    )""");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create the agent_session table", e);
+        }
+    }
+
+    @Override
+    public String create() {
+        long now = System.nanoTime();
+        if (now - nextPurge >= 0) {
+            nextPurge = now + PURGE_INTERVAL.toNanos();
+            update("delete from agent_session where updated_at < now() - ? * interval '1 second'", ttl.toSeconds());
+        }
+        String token = SessionTokens.generate();
+        update("insert into agent_session (token) values (?)", token);
+        return token;
+    }
+
+    @Override
+    public boolean exists(String token) {
+        return query("select 1 from agent_session where token = ? and updated_at >= now() - ? * interval '1 second'",
+                rs -> rs.next(), token, ttl.toSeconds());
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        return query("select messages from agent_session where token = ?",
+                rs -> rs.next() ? ChatMessageDeserializer.messagesFromJson(rs.getString(1)) : List.<ChatMessage>of(),
+                memoryId.toString());
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        update("""
+                        insert into agent_session (token, messages) values (?, ?)
+                        on conflict (token) do update set messages = excluded.messages, updated_at = now()""",
+                memoryId.toString(), ChatMessageSerializer.messagesToJson(messages));
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        update("update agent_session set messages = '[]', updated_at = now() where token = ?", memoryId.toString());
+    }
+
+    @Override
+    public ConversationState getState(String token) {
+        return query("select identified, correcting from agent_session where token = ?",
+                rs -> rs.next() ? new ConversationState(rs.getBoolean(1), rs.getBoolean(2)) : new ConversationState(),
+                token);
+    }
+
+    @Override
+    public void updateState(String token, ConversationState state) {
+        update("""
+                        insert into agent_session (token, identified, correcting) values (?, ?, ?)
+                        on conflict (token) do update
+                        set identified = excluded.identified, correcting = excluded.correcting, updated_at = now()""",
+                token, state.isIdentified(), state.isCorrecting());
+    }
+
+    private void update(String sql, Object... params) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepare(connection, sql, params)) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not update the agent session store", e);
+        }
+    }
+
+    private <T> T query(String sql, ResultMapper<T> mapper, Object... params) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepare(connection, sql, params);
+             ResultSet rs = statement.executeQuery()) {
+            return mapper.map(rs);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the agent session store", e);
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+        return statement;
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,146 @@
+package dev.langchain4j.quarkus.workshop;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A generated text resource rendered once, together with its gzip and brotli encodings and a
+ * strong ETag per encoding, so serving it costs no more than a header comparison.
+ */
+final class PrecompressedAsset {
+
+    private static final CacheControl REVALIDATE = CacheControl.valueOf("no-cache");
+
+    private final Variant identity;
+    private final Variant gzip;
+    private final Variant brotli;
+
+    private PrecompressedAsset(byte[] content) {
+        String hash = sha256(content);
+        this.identity = new Variant(content, null, new EntityTag(hash));
+        this.gzip = new Variant(gzip(content), "gzip", new EntityTag(hash + "-gzip"));
+        byte[] br = brotli(content);
+        this.brotli = br == null ? null : new Variant(br, "br", new EntityTag(hash + "-br"));
+    }
+
+    static PrecompressedAsset of(String content) {
+        return new PrecompressedAsset(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Answers with 304 when the client already holds the current version, and otherwise with the
+     * best encoding the client accepts. Clients must revalidate, since the content changes with
+     * every deployment that updates a web dependency.
+     */
+    Response serve(Request request, String acceptEncoding) {
+        Variant variant = select(acceptEncoding);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(variant.etag());
+        if (notModified != null) {
+            return notModified.cacheControl(REVALIDATE).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        Response.ResponseBuilder builder = Response.ok(variant.content())
+                .tag(variant.etag())
+                .cacheControl(REVALIDATE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (variant.encoding() != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Picks the encoding with the highest quality value in {@code Accept-Encoding}, preferring
+     * brotli on ties. Codings with {@code q=0} are refused, and {@code *} stands for every
+     * coding the header doesn't name.
+     */
+    private Variant select(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return identity;
+        }
+        double br = -1;
+        double gzipQuality = -1;
+        double wildcard = 0;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            double quality = quality(parts);
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "br" -> br = quality;
+                case "gzip", "x-gzip" -> gzipQuality = quality;
+                case "*" -> wildcard = quality;
+                default -> {
+                }
+            }
+        }
+        br = br < 0 ? wildcard : br;
+        gzipQuality = gzipQuality < 0 ? wildcard : gzipQuality;
+        if (brotli != null && br > 0 && br >= gzipQuality) {
+            return brotli;
+        }
+        if (gzipQuality > 0) {
+            return gzip;
+        }
+        return identity;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && (parameter.startsWith("q=") || parameter.startsWith("Q="))) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] content) {
+        if (!Brotli4jLoader.isAvailable()) {
+            return null;
+        }
+        try {
+            return Encoder.compress(content);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record Variant(byte[] content, String encoding, EntityTag etag) {
+    }
+}
@@ -1,10 +1,12 @@
 package dev.langchain4j.quarkus.workshop;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 
 @Entity
+@Cacheable
 public class Project extends PanacheEntity {
 
     @Column(unique = true)
@@ -4,21 +4,47 @@ import dev.langchain4j.agent.tool.Tool;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
 @ApplicationScoped
 public class ProjectRepository implements PanacheRepository<Project> {
 
+    private static final int MAX_MATCHES = 5;
+
     @Tool("Retrieves a list of all projects registered in the system. Returns a list of Project objects containing id, name, and description. The list will be empty if no projects are registered.")
     @Transactional
     public List<Project> listAllProjects() {
         return findAll().list();
     }
 
-    @Tool("Retrieves a project by its name. The project name parameter is case-insensitive. Returns the Project object if found. Throws ProjectNotFoundException if no project with the given name exists in the system.")
+    @Tool("Retrieves a project by its name. The project name parameter is case-insensitive. Returns the Project object if found. Throws ProjectNotFoundException if no project with the given name exists in the system; use searchProjectsByName to find the closest names then.")
     @Transactional
     public Project findProjectByName(String projectName) {
-        return find("lower(name) = ?1", projectName.toLowerCase()).firstResultOptional().orElseThrow(() -> new Exceptions.ProjectNotFoundException(projectName));
+        return find("lower(name) = ?1", projectName.toLowerCase())
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .firstResultOptional().orElseThrow(() -> new Exceptions.ProjectNotFoundException(projectName));
+    }
+
+    @Tool("Finds the projects whose name is most similar to the given name, tolerating typos, abbreviations and partial names. Parameters: name (the full or partial project name as the user wrote it). Returns up to 5 ProjectMatch objects containing id, name and score (similarity between 0 and 1, higher is better), best match first. The list will be empty if no name is similar enough. Prefer this over listAllProjects when findProjectByName fails.")
+    @Transactional
+    public List<ProjectMatch> searchProjectsByName(String name) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+                        select id, name,
+                               greatest(similarity(lower(name), ?1), word_similarity(?1, lower(name))) as score
+                        from Project
+                        where lower(name) % ?1 or ?1 <% lower(name)
+                        order by score desc""")
+                .setParameter(1, name.toLowerCase())
+                .setMaxResults(MAX_MATCHES)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new ProjectMatch(((Number) row[0]).longValue(), (String) row[1], ((Number) row[2]).doubleValue()))
+                .toList();
+    }
+
+    public record ProjectMatch(Long id, String name, double score) {
     }
 }
@@ -0,0 +1,45 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Counts the input tokens the model provider served from its prompt cache ({@code agent.tokens.input} with
+ * {@code cache=hit}) and those it had to process ({@code cache=miss}), plus the output tokens.
+ */
+@ApplicationScoped
+public class PromptCacheMetrics implements ChatModelListener {
+
+    private final Counter cachedInput;
+    private final Counter uncachedInput;
+    private final Counter output;
+
+    public PromptCacheMetrics(MeterRegistry registry) {
+        this.cachedInput = registry.counter("agent.tokens.input", "cache", "hit");
+        this.uncachedInput = registry.counter("agent.tokens.input", "cache", "miss");
+        this.output = registry.counter("agent.tokens.output");
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        TokenUsage usage = context.chatResponse() == null ? null : context.chatResponse().tokenUsage();
+        if (usage == null || usage.inputTokenCount() == null) {
+            return;
+        }
+        int cached = 0;
+        if (usage instanceof OpenAiTokenUsage openAi && openAi.inputTokensDetails() != null
+                && openAi.inputTokensDetails().cachedTokens() != null) {
+            cached = openAi.inputTokensDetails().cachedTokens();
+        }
+        cachedInput.increment(cached);
+        uncachedInput.increment(usage.inputTokenCount() - cached);
+        if (usage.outputTokenCount() != null) {
+            output.increment(usage.outputTokenCount());
+        }
+    }
+}
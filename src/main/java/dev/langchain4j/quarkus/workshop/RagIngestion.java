@@ -1,20 +1,26 @@
 package dev.langchain4j.quarkus.workshop;
 
-import static dev.langchain4j.data.document.splitter.DocumentSplitters.recursive;
-
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import io.agroal.api.AgroalDataSource;
 import io.quarkus.logging.Log;
 import io.quarkus.runtime.StartupEvent;
 
 import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.loader.FileSystemDocumentLoader;
+import dev.langchain4j.data.document.splitter.DocumentByParagraphSplitter;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
@@ -25,23 +31,65 @@ public class RagIngestion {
     /**
      * Ingests the documents from the given location into the embedding store.
      *
-     * @param ev             the startup event to trigger the ingestion when the application starts
-     * @param store          the embedding store the embedding store (PostGreSQL in our case)
-     * @param embeddingModel the embedding model to use for the embedding (BGE-Small-EN-Quantized in our case)
-     * @param documents      the location of the documents to ingest
+     * @param ev              the startup event to trigger the ingestion when the application starts
+     * @param stores          the embedding store the embedding store (PostGreSQL in our case)
+     * @param embeddingModels the embedding model to use for the embedding (BGE-Small-EN-Quantized in our case)
+     * @param documents       the location of the documents to ingest
+     * @param enabled         whether to ingest at all; disable it on pods sharing an already populated store,
+     *                        so they neither re-embed the documents nor load the embedding model at startup
+     * @param dataSource      the datasource holding the embedding table
+     * @param table           the embedding table, indexed for the full-text side of {@link HybridContentRetriever}
+     * @param splitter        the splitter strategy, see {@link #splitter(String, int, int)}
+     * @param maxSegmentSize  the maximum segment size in characters
+     * @param maxOverlapSize  the maximum overlap between consecutive segments in characters
      */
     public void ingest(@Observes StartupEvent ev,
-                       EmbeddingStore store, EmbeddingModel embeddingModel,
-                       @ConfigProperty(name = "rag.location") Path documents) {
+                       Instance<EmbeddingStore> stores, Instance<EmbeddingModel> embeddingModels,
+                       @ConfigProperty(name = "rag.location") Path documents,
+                       @ConfigProperty(name = "rag.ingestion.enabled", defaultValue = "true") boolean enabled,
+                       AgroalDataSource dataSource,
+                       @ConfigProperty(name = "quarkus.langchain4j.pgvector.table", defaultValue = "embeddings") String table,
+                       @ConfigProperty(name = "rag.splitter.strategy", defaultValue = "section") String splitter,
+                       @ConfigProperty(name = "rag.splitter.max-segment-size", defaultValue = "500") int maxSegmentSize,
+                       @ConfigProperty(name = "rag.splitter.max-overlap-size", defaultValue = "0") int maxOverlapSize)
+            throws SQLException {
+        if (!enabled) {
+            Log.info("Document ingestion disabled");
+            return;
+        }
+        EmbeddingStore store = stores.get();
+        EmbeddingModel embeddingModel = embeddingModels.get();
         store.removeAll(); // cleanup the store to start fresh (just for demo purposes)
         List<Document> list = FileSystemDocumentLoader.loadDocumentsRecursively(documents);
         EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
                 .embeddingStore(store)
                 .embeddingModel(embeddingModel)
-                .documentSplitter(recursive(100, 25))
+                .documentSplitter(splitter(splitter, maxSegmentSize, maxOverlapSize))
                 .build();
         ingestor.ingest(list);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create index if not exists %s_text_search on %s using gin (to_tsvector('%s', text))"
+                    .formatted(table, table, HybridContentRetriever.TEXT_SEARCH_CONFIG));
+        }
         Log.info("Documents ingested successfully");
     }
 
+    /**
+     * Creates the document splitter for the given strategy:
+     * <ul>
+     *     <li>{@code section}: per section, then by paragraph, with the heading kept in every segment</li>
+     *     <li>{@code paragraph}: by paragraph, then by sentence</li>
+     *     <li>{@code recursive}: langchain4j's recursive splitter (paragraph, line, sentence, word)</li>
+     * </ul>
+     */
+    static DocumentSplitter splitter(String strategy, int maxSegmentSize, int maxOverlapSize) {
+        return switch (strategy) {
+            case "section" -> new SectionDocumentSplitter(maxSegmentSize, maxOverlapSize);
+            case "paragraph" -> new DocumentByParagraphSplitter(maxSegmentSize, maxOverlapSize);
+            case "recursive" -> DocumentSplitters.recursive(maxSegmentSize, maxOverlapSize);
+            default -> throw new IllegalArgumentException("Unknown splitter strategy: " + strategy);
+        };
+    }
+
 }
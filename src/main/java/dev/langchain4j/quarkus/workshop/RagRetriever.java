@@ -1,36 +1,105 @@
 package dev.langchain4j.quarkus.workshop;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import ai.onnxruntime.OrtException;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
 
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.rag.DefaultRetrievalAugmentor;
 import dev.langchain4j.rag.RetrievalAugmentor;
 import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+import dev.langchain4j.rag.content.aggregator.DefaultContentAggregator;
+import dev.langchain4j.rag.content.aggregator.ReRankingContentAggregator;
 import dev.langchain4j.rag.content.injector.ContentInjector;
-import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
+@Singleton
 public class RagRetriever {
 
+    /**
+     * Starts the date and the retrieved segments appended to the user message.
+     */
+    static final String AUGMENTATION_MARKER = "\n\nToday is ";
+
+    /**
+     * Returns what the user wrote, without the date and the retrieved segments appended to it.
+     */
+    static String userText(String message) {
+        int augmentation = message.lastIndexOf(AUGMENTATION_MARKER);
+        return augmentation < 0 ? message : message.substring(0, augmentation);
+    }
+
+    private CrossEncoderScoringModel reranker;
+
+    /**
+     * Creates the retrieval augmentor: hybrid full-text and vector retrieval fused by reciprocal rank, optionally
+     * re-ranked by a local cross-encoder.
+     *
+     * @param store             the embedding store (PostGreSQL in our case)
+     * @param model             the embedding model used to embed the user message
+     * @param dataSource        the datasource holding the embedding table, for the full-text search
+     * @param table             the embedding table
+     * @param maxResults        the number of segments injected into the user message
+     * @param candidates        the number of candidates taken from each of the full-text and the vector search
+     * @param rerankerModel     the ONNX cross-encoder to re-rank the fused candidates with; no re-ranking if absent
+     * @param rerankerTokenizer the {@code tokenizer.json} of the cross-encoder
+     * @param rerankerMinScore  the cross-encoder score below which candidates are dropped
+     * @param intraOpThreads    the ONNX threads per re-ranking inference, as for the embedding model
+     */
     @Produces
     @ApplicationScoped
-    public RetrievalAugmentor create(EmbeddingStore store, EmbeddingModel model) {
-        var contentRetriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingModel(model)
-                .embeddingStore(store)
-                .maxResults(3)
-                .build();
+    @SuppressWarnings("unchecked")
+    public RetrievalAugmentor create(EmbeddingStore store, EmbeddingModel model, AgroalDataSource dataSource,
+                                     @ConfigProperty(name = "quarkus.langchain4j.pgvector.table", defaultValue = "embeddings") String table,
+                                     @ConfigProperty(name = "rag.max-results", defaultValue = "3") int maxResults,
+                                     @ConfigProperty(name = "rag.hybrid.candidates", defaultValue = "10") int candidates,
+                                     @ConfigProperty(name = "rag.reranker.model") Optional<Path> rerankerModel,
+                                     @ConfigProperty(name = "rag.reranker.tokenizer") Optional<Path> rerankerTokenizer,
+                                     @ConfigProperty(name = "rag.reranker.min-score") Optional<Double> rerankerMinScore,
+                                     @ConfigProperty(name = "embedding.onnx.intra-op-threads", defaultValue = "1") int intraOpThreads)
+            throws OrtException, IOException {
+        boolean reranking = rerankerModel.isPresent();
+        // The re-ranker picks the best segments itself, so hand it all fused candidates
+        var contentRetriever = new HybridContentRetriever(store, model, dataSource, table,
+                candidates, reranking ? 2 * candidates : maxResults);
+
+        ContentAggregator aggregator = new DefaultContentAggregator();
+        if (reranking) {
+            Path tokenizer = rerankerTokenizer.orElseGet(() -> rerankerModel.get().resolveSibling("tokenizer.json"));
+            reranker = new CrossEncoderScoringModel(rerankerModel.get(), tokenizer, intraOpThreads);
+            aggregator = ReRankingContentAggregator.builder()
+                    .scoringModel(reranker)
+                    .minScore(rerankerMinScore.orElse(null))
+                    .maxResults(maxResults)
+                    .build();
+            Log.infof("Re-ranking retrieved segments with %s", rerankerModel.get());
+        }
 
         return DefaultRetrievalAugmentor.builder()
                 .contentRetriever(contentRetriever)
+                .contentAggregator(aggregator)
                 .contentInjector(new ContentInjector() {
                     @Override
                     public UserMessage inject(List<Content> list, UserMessage userMessage) {
+                        // The date and the retrieved segments change between requests, so they are appended to the
+                        // user message rather than put into the system message, keeping the prompt prefix cacheable
                         StringBuffer prompt = new StringBuffer(userMessage.singleText());
+                        prompt.append(AUGMENTATION_MARKER).append(LocalDate.now()).append(".");
                         prompt.append("\nPlease, only use the following information:\n");
                         list.forEach(content -> prompt.append("- ").append(content.textSegment().text()).append("\n"));
                         return new UserMessage(prompt.toString());
@@ -38,4 +107,13 @@ public class RagRetriever {
                 })
                 .build();
     }
+
+    /**
+     * Closes the ONNX session of the re-ranker, if any, together with the augmentor that uses it.
+     */
+    void close(@Disposes RetrievalAugmentor augmentor) throws OrtException {
+        if (reranker != null) {
+            reranker.close();
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.arc.InjectableInstance;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs read-only queries against the {@code replica} datasource when it is active and lags
+ * behind the primary by no more than {@code replica.max-staleness}; otherwise the queries
+ * run on the primary as before.
+ */
+@ApplicationScoped
+public class ReadReplica {
+
+    private static final Duration LAG_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    @Inject
+    @DataSource("replica")
+    InjectableInstance<AgroalDataSource> replicaDataSource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    Session session;
+
+    @ConfigProperty(name = "replica.max-staleness", defaultValue = "5S")
+    Duration maxStaleness;
+
+    private volatile long nextLagCheck = System.nanoTime();
+    private volatile boolean lagAcceptable;
+
+    /**
+     * Applies the given work to a read-only session, bound to the replica if it can be used.
+     * Entities loaded from the replica are detached once the work returns and are never put
+     * into the second-level cache, so stale rows cannot leak into primary reads. When the
+     * replica fails while the work runs, e.g. because it went away or recovery cancelled the
+     * query, the work is applied again on the primary.
+     */
+    public <T> T read(Function<Session, T> work) {
+        List<AgroalDataSource> active = replicaDataSource.listActive();
+        if (active.isEmpty() || !isLagAcceptable(active.getFirst())) {
+            return work.apply(session);
+        }
+        try (Connection connection = active.getFirst().getConnection();
+             Session replicaSession = sessionFactory.withOptions()
+                     .connection(connection)
+                     .autoJoinTransactions(false)
+                     .flushMode(FlushMode.MANUAL)
+                     .openSession()) {
+            connection.setReadOnly(true);
+            try {
+                replicaSession.setDefaultReadOnly(true);
+                replicaSession.setCacheMode(CacheMode.GET);
+                return work.apply(replicaSession);
+            } finally {
+                // The connection goes back to the pool, which does not reset the flag
+                connection.setReadOnly(false);
+            }
+        } catch (SQLException | PersistenceException e) {
+            Log.warn("Read replica unavailable, falling back to the primary datasource", e);
+            lagAcceptable = false;
+            return work.apply(session);
+        }
+    }
+
+    private boolean isLagAcceptable(AgroalDataSource replica) {
+        long now = System.nanoTime();
+        if (now - nextLagCheck >= 0) {
+            lagAcceptable = replicationLag(replica).compareTo(maxStaleness) <= 0;
+            nextLagCheck = now + LAG_CHECK_INTERVAL.toNanos();
+        }
+        return lagAcceptable;
+    }
+
+    private Duration replicationLag(AgroalDataSource replica) {
+        // The replica is caught up when it has replayed all the WAL it received; only then would the age of the
+        // last replayed transaction grow while the primary is idle. Both LSNs are null when it is not a standby.
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     select case
+                         when pg_last_wal_receive_lsn() is null or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                         else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                     end
+                     """)) {
+            rs.next();
+            return Duration.ofMillis((long) (rs.getDouble(1) * 1000));
+        } catch (SQLException e) {
+            Log.warn("Could not determine read replica lag", e);
+            return ChronoUnit.FOREVER.getDuration();
+        }
+    }
+}
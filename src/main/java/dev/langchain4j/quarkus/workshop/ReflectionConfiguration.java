@@ -0,0 +1,23 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the types that are serialized to JSON for the model, the bulk endpoints or the outbox, for reflection
+ * in native images. Hibernate only registers what it needs for persistence.
+ */
+@RegisterForReflection(targets = {
+        Activity.class,
+        ActivityRepository.ActivityMatch.class,
+        Person.class,
+        PersonRepository.PersonMatch.class,
+        Project.class,
+        ProjectRepository.ProjectMatch.class,
+        ReportedTime.class,
+        ReportedTimeChange.class,
+        ReportedTimeRepository.TimeReport.class,
+        ReportedTimeRepository.TimeReportRow.class,
+        ReportedTimeRow.class
+})
+public class ReflectionConfiguration {
+}
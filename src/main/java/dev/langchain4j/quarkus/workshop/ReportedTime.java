@@ -1,9 +1,11 @@
 package dev.langchain4j.quarkus.workshop;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -24,4 +26,10 @@ public class ReportedTime extends PanacheEntity {
 
     BigDecimal duration;
 
+    @Column(unique = true)
+    String idempotencyKey;
+
+    @Version
+    long version;
+
 }
@@ -0,0 +1,26 @@
+package dev.langchain4j.quarkus.workshop;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A write to a time entry, fired synchronously by {@link ReportedTimeRepository} within the writing transaction for
+ * every entry that is created, moved to another activity, or deleted, including the bulk write paths.
+ * {@code activityId} and {@code projectId} are the values after the change. {@code version} is the entry's
+ * {@code @Version} after the change, where a deletion counts as one more version, so the changes of an entry are
+ * ordered by it.
+ */
+public record ReportedTimeChange(Type type, long id, long personId, long activityId, long projectId, LocalDate date,
+                                 BigDecimal duration, long version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    static ReportedTimeChange of(Type type, ReportedTime rt) {
+        return new ReportedTimeChange(type, rt.id, rt.person.id, rt.activity.id, rt.activity.project.id, rt.date,
+                rt.duration, rt.version);
+    }
+}
@@ -0,0 +1,607 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An optional read-side copy of all time entries for reports, enabled with {@code reporting.cache.enabled=true}.
+ * The entries are kept in primitive column arrays (epoch day, person, activity and project id, duration in minutes),
+ * one partition per month, so aggregating millions of them neither hydrates entities nor allocates per row.
+ * Aggregations fork one task per chunk of {@value #CHUNK_SIZE} rows onto the common fork-join pool.
+ * <p>
+ * The partitions are loaded in the background at startup, and from then on follow the {@link ReportedTimeChange}s
+ * of committed transactions. A transaction changing more than {@code reporting.cache.max-buffered-changes} entries
+ * does not buffer its changes; the months it touched are reloaded once it has committed instead. While a load is running,
+ * {@link #isReady()} is false and reports query the database as before.
+ */
+@ApplicationScoped
+public class ReportedTimeColumns {
+
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final String SELECT_ENTRIES = """
+            select rt.id, rt.person_id, rt.activity_id, a.project_id, rt.date, rt.duration
+            from ReportedTime rt join Activity a on a.id = rt.activity_id""";
+
+    @ConfigProperty(name = "reporting.cache.enabled", defaultValue = "false")
+    volatile boolean enabled;
+
+    @ConfigProperty(name = "reporting.cache.max-buffered-changes", defaultValue = "10000")
+    int maxBufferedChanges;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final NavigableMap<Integer, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final Object applyLock = new Object();
+    // Guarded by applyLock: the changes committed while a load runs, and the months to reload after it
+    private List<Changes> changesDuringLoad = new ArrayList<>();
+    private final Set<Integer> staleMonths = new HashSet<>();
+    private volatile boolean ready;
+
+    void load(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        registry.gauge("reporting.cache.rows", partitions,
+                all -> all.values().stream().mapToLong(Partition::size).sum());
+        Thread.ofVirtual().name("reporting-cache-load").start(() -> loadPartitions(null));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads the given months, or all of them if {@code null}, into new partitions that replace the current ones.
+     * The changes committed meanwhile are applied afterwards, replacing the entries the load has already seen.
+     */
+    private void loadPartitions(Set<Integer> months) {
+        long start = System.nanoTime();
+        Map<Integer, Partition> loaded = new HashMap<>();
+        long rows = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            // Postgres only streams the result with a fetch size outside of auto-commit
+            connection.setAutoCommit(false);
+            try {
+                if (months == null) {
+                    try (PreparedStatement statement = connection.prepareStatement(SELECT_ENTRIES)) {
+                        rows += read(statement, loaded);
+                    }
+                } else {
+                    for (int month : months) {
+                        try (PreparedStatement statement = connection.prepareStatement(
+                                SELECT_ENTRIES + " where rt.date >= ? and rt.date < ?")) {
+                            LocalDate first = LocalDate.of(month / 12, month % 12 + 1, 1);
+                            statement.setObject(1, first);
+                            statement.setObject(2, first.plusMonths(1));
+                            rows += read(statement, loaded);
+                        }
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            Log.warn("Could not load the reporting cache, reports keep querying the database", e);
+            synchronized (applyLock) {
+                enabled = false;
+                changesDuringLoad = null;
+                staleMonths.clear();
+                partitions.clear();
+            }
+            return;
+        }
+        synchronized (applyLock) {
+            if (months != null) {
+                months.forEach(partitions::remove);
+            }
+            partitions.putAll(loaded);
+            changesDuringLoad.forEach(changes -> apply(changes, true));
+            changesDuringLoad = null;
+            if (staleMonths.isEmpty()) {
+                ready = true;
+            } else {
+                reloadStaleMonths();
+            }
+        }
+        Log.infof("Loaded %d time entries into the reporting cache in %d ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static long read(PreparedStatement statement, Map<Integer, Partition> loaded) throws SQLException {
+        long rows = 0;
+        statement.setFetchSize(LOAD_FETCH_SIZE);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                int day = (int) rs.getObject(5, LocalDate.class).toEpochDay();
+                loaded.computeIfAbsent(month(day), month -> new Partition())
+                        .append(rs.getLong(1), day, rs.getLong(2), rs.getLong(3), rs.getLong(4), minutes(rs.getBigDecimal(6)));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Starts reloading the stale months in the background; the caller holds the apply lock.
+     */
+    private void reloadStaleMonths() {
+        Set<Integer> months = new HashSet<>(staleMonths);
+        staleMonths.clear();
+        ready = false;
+        changesDuringLoad = new ArrayList<>();
+        Thread.ofVirtual().name("reporting-cache-reload").start(() -> loadPartitions(months));
+    }
+
+    /**
+     * Collects the changes of the current transaction and applies them once it has committed.
+     */
+    void onChange(@Observes ReportedTimeChange change) {
+        if (!enabled) {
+            return;
+        }
+        Changes pending = (Changes) transactions.getResource(this);
+        if (pending == null) {
+            Changes created = new Changes();
+            pending = created;
+            transactions.putResource(this, created);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        committed(created);
+                    }
+                }
+            });
+        }
+        int day = (int) change.date().toEpochDay();
+        if (pending.months != null) {
+            pending.months.add(month(day));
+            return;
+        }
+        if (change.type() == ReportedTimeChange.Type.CREATED) {
+            pending.created.set(pending.size);
+        }
+        int minutes = change.type() == ReportedTimeChange.Type.DELETED ? -1 : minutes(change.duration());
+        pending.append(change.id(), day, change.personId(), change.activityId(), change.projectId(), minutes);
+        if (pending.size > maxBufferedChanges) {
+            pending.overflow();
+        }
+    }
+
+    private void committed(Changes changes) {
+        synchronized (applyLock) {
+            if (changes.months != null) {
+                staleMonths.addAll(changes.months);
+                if (changesDuringLoad == null) {
+                    reloadStaleMonths();
+                }
+                return;
+            }
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(changes);
+                return;
+            }
+            apply(changes, false);
+        }
+    }
+
+    /**
+     * Applies a batch of changes, where a negative duration marks a deletion. Updates and deletions replace the
+     * existing entry, creations only if {@code loaded} because a load may already have seen them.
+     */
+    private void apply(Changes changes, boolean loaded) {
+        for (int i = 0; i < changes.size; i++) {
+            Partition partition = partition(changes.days[i]);
+            long id = changes.ids[i];
+            if (changes.minutes[i] < 0) {
+                partition.remove(id);
+            } else if (loaded || !changes.created.get(i)) {
+                // An update may have moved the entry to another day, and so to another month
+                partitions.values().forEach(month -> month.remove(id));
+            }
+            if (changes.minutes[i] >= 0) {
+                partition.append(changes.ids[i], changes.days[i], changes.persons[i], changes.activities[i],
+                        changes.projects[i], changes.minutes[i]);
+            }
+        }
+    }
+
+    /**
+     * Sums the minutes reported per person and day between {@code start} and {@code end} (inclusive).
+     *
+     * @param projectId only count entries of this project, or all projects if {@code null}
+     * @param personIds only count entries of these persons, or all persons if {@code null}
+     * @return the minutes of each person that reported time, indexed by the day's offset from {@code start}
+     */
+    public Map<Long, int[]> minutesByPersonAndDay(LocalDate start, LocalDate end, Long projectId, long[] personIds) {
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        long[] persons = personIds == null ? null : Arrays.stream(personIds).sorted().toArray();
+        List<Partition> locked = new ArrayList<>(partitions.subMap(month(startDay), true, month(endDay), true).values());
+        locked.forEach(partition -> partition.lock.readLock().lock());
+        try {
+            List<Chunk> chunks = new ArrayList<>();
+            for (Partition partition : locked) {
+                for (int from = 0; from < partition.size; from += CHUNK_SIZE) {
+                    chunks.add(new Chunk(partition, from, Math.min(partition.size, from + CHUNK_SIZE)));
+                }
+            }
+            PersonDays sums = chunks.isEmpty()
+                    ? new PersonDays(endDay - startDay + 1)
+                    : new Aggregation(chunks, 0, chunks.size(), startDay, endDay, projectId, persons).invoke();
+            return sums.toMap();
+        } finally {
+            locked.forEach(partition -> partition.lock.readLock().unlock());
+        }
+    }
+
+    private Partition partition(int day) {
+        return partitions.computeIfAbsent(month(day), month -> new Partition());
+    }
+
+    private static int month(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static int minutes(BigDecimal hours) {
+        return hours.multiply(BigDecimal.valueOf(60)).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    /**
+     * Growable primitive columns of time entries.
+     */
+    private static class Columns {
+
+        long[] ids = new long[16];
+        int[] days = new int[16];
+        long[] persons = new long[16];
+        long[] activities = new long[16];
+        long[] projects = new long[16];
+        int[] minutes = new int[16];
+        int size;
+
+        void append(long id, int day, long person, long activity, long project, int duration) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                persons = Arrays.copyOf(persons, capacity);
+                activities = Arrays.copyOf(activities, capacity);
+                projects = Arrays.copyOf(projects, capacity);
+                minutes = Arrays.copyOf(minutes, capacity);
+            }
+            ids[size] = id;
+            days[size] = day;
+            persons[size] = person;
+            activities[size] = activity;
+            projects[size] = project;
+            minutes[size] = duration;
+            size++;
+        }
+    }
+
+    /**
+     * The changes of one transaction, or only the months they touched once there are too many to buffer.
+     */
+    private static final class Changes extends Columns {
+
+        final BitSet created = new BitSet();
+        Set<Integer> months;
+
+        void overflow() {
+            months = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                months.add(month(days[i]));
+            }
+            ids = new long[0];
+            days = new int[0];
+            persons = new long[0];
+            activities = new long[0];
+            projects = new long[0];
+            minutes = new int[0];
+            size = 0;
+        }
+    }
+
+    /**
+     * The time entries of one month, in no particular order. Writers take the write lock, aggregations the read lock.
+     */
+    private static final class Partition extends Columns {
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final RowIndex rows = new RowIndex();
+
+        @Override
+        void append(long id, int day, long person, long activity, long project, int duration) {
+            lock.writeLock().lock();
+            try {
+                rows.put(id, size);
+                super.append(id, day, person, activity, project, duration);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Removes the entry by moving the last one into its place.
+         */
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                int i = rows.remove(id);
+                if (i < 0) {
+                    return;
+                }
+                int last = --size;
+                if (i != last) {
+                    ids[i] = ids[last];
+                    days[i] = days[last];
+                    persons[i] = persons[last];
+                    activities[i] = activities[last];
+                    projects[i] = projects[last];
+                    minutes[i] = minutes[last];
+                    rows.put(ids[i], i);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * The row of each entry of a partition by id, in an open-addressing table so that removing an entry neither
+     * scans the partition nor boxes. Slots hold the row plus one, so that zero marks a free slot.
+     */
+    private static final class RowIndex {
+
+        private long[] keys = new long[16];
+        private int[] rows = new int[16];
+        private int size;
+
+        void put(long id, int row) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(id, mask);
+            while (rows[slot] != 0) {
+                if (keys[slot] == id) {
+                    rows[slot] = row + 1;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = id;
+            rows[slot] = row + 1;
+            size++;
+        }
+
+        /**
+         * @return the row of the removed entry, or -1 if there was none
+         */
+        int remove(long id) {
+            int mask = keys.length - 1;
+            int slot = slot(id, mask);
+            while (rows[slot] != 0 && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (rows[slot] == 0) {
+                return -1;
+            }
+            int row = rows[slot] - 1;
+            // Shift the rest of the cluster back into the freed slot, so that lookups need no tombstones
+            int free = slot;
+            for (int next = (free + 1) & mask; rows[next] != 0; next = (next + 1) & mask) {
+                if (((next - slot(keys[next], mask)) & mask) >= ((next - free) & mask)) {
+                    keys[free] = keys[next];
+                    rows[free] = rows[next];
+                    free = next;
+                }
+            }
+            rows[free] = 0;
+            size--;
+            return row;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new long[oldKeys.length * 2];
+            rows = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRows[i] != 0) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (rows[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    rows[slot] = oldRows[i];
+                }
+            }
+        }
+
+        private static int slot(long id, int mask) {
+            return Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+        }
+    }
+
+    private record Chunk(Partition partition, int from, int to) {
+    }
+
+    private static final class Aggregation extends RecursiveTask<PersonDays> {
+
+        private final List<Chunk> chunks;
+        private final int lo;
+        private final int hi;
+        private final int startDay;
+        private final int endDay;
+        private final Long projectId;
+        private final long[] personIds;
+
+        Aggregation(List<Chunk> chunks, int lo, int hi, int startDay, int endDay, Long projectId, long[] personIds) {
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.projectId = projectId;
+            this.personIds = personIds;
+        }
+
+        @Override
+        protected PersonDays compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                Aggregation left = new Aggregation(chunks, lo, mid, startDay, endDay, projectId, personIds);
+                left.fork();
+                PersonDays right = new Aggregation(chunks, mid, hi, startDay, endDay, projectId, personIds).compute();
+                return left.join().addAll(right);
+            }
+            Chunk chunk = chunks.get(lo);
+            Partition p = chunk.partition();
+            boolean anyProject = projectId == null;
+            long project = anyProject ? 0 : projectId;
+            PersonDays sums = new PersonDays(endDay - startDay + 1);
+            for (int i = chunk.from(); i < chunk.to(); i++) {
+                int day = p.days[i];
+                if (day < startDay || day > endDay
+                        || !anyProject && p.projects[i] != project
+                        || personIds != null && Arrays.binarySearch(personIds, p.persons[i]) < 0) {
+                    continue;
+                }
+                sums.add(p.persons[i], day - startDay, p.minutes[i]);
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * Minutes per person and day, in an open-addressing table keyed by person id so that summing does not box.
+     */
+    private static final class PersonDays {
+
+        private final int days;
+        private long[] keys = new long[16];
+        private int[][] values = new int[16][];
+        private int size;
+
+        PersonDays(int days) {
+            this.days = days;
+        }
+
+        void add(long person, int day, int minutes) {
+            row(person)[day] += minutes;
+        }
+
+        PersonDays addAll(PersonDays other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.values[i] != null) {
+                    int[] row = row(other.keys[i]);
+                    for (int day = 0; day < days; day++) {
+                        row[day] += other.values[i][day];
+                    }
+                }
+            }
+            return this;
+        }
+
+        Map<Long, int[]> toMap() {
+            Map<Long, int[]> map = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    map.put(keys[i], values[i]);
+                }
+            }
+            return map;
+        }
+
+        private int[] row(long person) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(person * 0x9E3779B97F4A7C15L) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == person) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size * 2 >= keys.length) {
+                grow();
+                return row(person);
+            }
+            keys[slot] = person;
+            values[slot] = new int[days];
+            size++;
+            return values[slot];
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[][] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2][];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & (keys.length - 1);
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & (keys.length - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                    size++;
+                }
+            }
+        }
+    }
+}
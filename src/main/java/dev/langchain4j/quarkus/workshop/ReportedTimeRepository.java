@@ -2,19 +2,46 @@ package dev.langchain4j.quarkus.workshop;
 
 import dev.langchain4j.agent.tool.Tool;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class ReportedTimeRepository implements PanacheRepository<ReportedTime> {
 
+    private static final int IMPORT_BATCH_SIZE = 50;
+    private static final int MAX_INSERT_ATTEMPTS = 2;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final BigDecimal MINUTES_PER_HOUR = BigDecimal.valueOf(60);
+    // The activity a is the one the entry rt belongs to after the statement
+    private static final String CHANGED_COLUMNS = "rt.id as id, rt.person_id as person_id, rt.activity_id as activity_id,"
+            + " a.project_id as project_id, rt.date as date, rt.duration as duration";
+
     @Inject
     PersonRepository personRepository;
 
@@ -24,56 +51,64 @@ public class ReportedTimeRepository implements PanacheRepository<ReportedTime> {
     @Inject
     ActivityRepository activityRepository;
 
+    @Inject
+    ReadReplica readReplica;
+
+    @Inject
+    ReportedTimeColumns reportedTimeColumns;
+
+    @Inject
+    Event<ReportedTimeChange> changes;
+
     private Activity resolveActivity(Project project, String activityName) {
         return activityRepository.getActivityByName(activityName, project.name);
     }
 
-    @Tool("Creates and persists a new time entry in the system. Parameters: projectName (case-insensitive), activityName (case-insensitive, must exist in the project), firstName and lastName of the person (case-insensitive), date (in ISO format YYYY-MM-DD), and duration (decimal number of hours). Returns the created ReportedTime object. Throws ProjectNotFoundException if project doesn't exist, ActivityNotFoundException if activity doesn't exist, or PersonNotFoundException if person doesn't exist.")
-    @Transactional
-    public ReportedTime createReportedTime(String projectName, String activityName, String firstName, String lastName,
-                                           LocalDate date, BigDecimal duration) {
-        Person person = personRepository.findByName(firstName, lastName);
-        Project project = projectRepository.findProjectByName(projectName);
-        Activity activity = resolveActivity(project, activityName);
-        ReportedTime rt = new ReportedTime();
-        rt.activity = activity;
-        rt.person = person;
-        rt.date = date;
-        rt.duration = duration;
-        persist(rt);
-        return rt;
+    private List<ReportedTime> listReadOnly(String query, Object... params) {
+        return readReplica.read(session -> {
+            var selection = session.createSelectionQuery("from ReportedTime where " + query, ReportedTime.class);
+            for (int i = 0; i < params.length; i++) {
+                selection.setParameter(i + 1, params[i]);
+            }
+            return selection.setReadOnly(true).list();
+        });
     }
 
-    @Tool("Deletes a specific time entry from the system. Parameters: projectName (case-insensitive), activityName (case-insensitive), firstName and lastName of the person (case-insensitive), date (in ISO format YYYY-MM-DD), and duration (decimal number of hours). Returns true if an entry was found and deleted, false if no matching entry was found. Throws ProjectNotFoundException if project doesn't exist, ActivityNotFoundException if activity doesn't exist, or PersonNotFoundException if person doesn't exist.")
-    @Transactional
-    public boolean deleteReportedTime(String projectName, String activityName, String firstName, String lastName,
-                                      LocalDate date, BigDecimal duration) {
-
-        Person person = personRepository.findByName(firstName, lastName);
-        Project project = projectRepository.findProjectByName(projectName);
-        Activity activity = resolveActivity(project, activityName);
-
-        ReportedTime rt = find("activity = ?1 and person = ?2 and date = ?3 and duration = ?4",
-                activity, person, date, duration).firstResult();
-        if (rt != null) {
-            delete(rt);
-            return true;
+    /**
+     * Runs a native bulk delete or update of time entries that returns the {@link #CHANGED_COLUMNS} and the version
+     * of every entry it changed, and fires a {@link ReportedTimeChange} for each of them. Selecting and changing in
+     * one statement leaves no window for a concurrent transaction to change the same entries in between.
+     *
+     * @return the number of changed entries
+     */
+    private int changeReturning(ReportedTimeChange.Type type, String statement, Object... params) {
+        // An update returns the incremented version, a deletion counts as one more
+        String version = type == ReportedTimeChange.Type.DELETED ? "rt.version + 1" : "rt.version";
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = getSession().createNativeQuery(
+                        statement + " returning " + CHANGED_COLUMNS + ", " + version + " as version")
+                .addSynchronizedEntityClass(ReportedTime.class)
+                .addScalar("id", Long.class)
+                .addScalar("person_id", Long.class)
+                .addScalar("activity_id", Long.class)
+                .addScalar("project_id", Long.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("duration", BigDecimal.class)
+                .addScalar("version", Long.class);
+        for (int i = 0; i < params.length; i++) {
+            query.setParameter(i + 1, params[i]);
         }
-        return false;
-    }
-
-    @Tool("Retrieves all time entries for a specific person within a date range. Parameters: firstName and lastName of the person (case-insensitive), startDate (inclusive, in ISO format YYYY-MM-DD), and endDate (inclusive, in ISO format YYYY-MM-DD). Returns a list of ReportedTime objects within the specified date range. The list will be empty if no entries are found. Throws PersonNotFoundException if the person doesn't exist.")
-    @Transactional
-    public List<ReportedTime> listReportedTimesForPersonAndTimespan(String firstName, String lastName,
-                                                                    LocalDate startDate, LocalDate endDate) {
-        Person person = personRepository.findByName(firstName, lastName);
-        return list("person = ?1 and date >= ?2 and date <= ?3", person, startDate, endDate);
+        List<Object[]> changed = query.getResultList();
+        changed.forEach(row -> changes.fire(new ReportedTimeChange(type, (Long) row[0], (Long) row[1], (Long) row[2],
+                (Long) row[3], (LocalDate) row[4], (BigDecimal) row[5], (Long) row[6])));
+        return changed.size();
     }
 
-    @Tool("Retrieves all time entries for a specific person during a predefined period. Parameters: firstName and lastName of the person (case-insensitive), and period (a string specifying the time period). Valid period values are: 'THIS_WEEK' (current week from Monday to Sunday), 'LAST_WEEK' (previous week), 'WEEK_NUMBER:n' (specific week number in current year), 'THIS_MONTH' (current month), 'LAST_MONTH' (previous month), or 'MONTH:n' (specific month number 1-12 in current year). Returns a list of ReportedTime objects within the calculated date range. The list will be empty if no entries are found. Throws PersonNotFoundException if the person doesn't exist, or IllegalArgumentException if the period format is invalid.")
-    @Transactional
-    public List<ReportedTime> listReportedTimesForPersonAndPeriod(String firstName, String lastName, String period) {
-        Person person = personRepository.findByName(firstName, lastName);
+    /**
+     * Resolves a period expression such as {@code THIS_WEEK}, {@code WEEK_NUMBER:12} or {@code MONTH:3}
+     * into an inclusive date range.
+     */
+    DateRange resolvePeriod(String period) {
         LocalDate now = LocalDate.now();
         LocalDate startDate;
         LocalDate endDate;
@@ -113,7 +148,231 @@ public class ReportedTimeRepository implements PanacheRepository<ReportedTime> {
         } else {
             throw new IllegalArgumentException("Invalid period format. Allowed values: THIS_WEEK, LAST_WEEK, WEEK_NUMBER:<number>, THIS_MONTH, LAST_MONTH, or MONTH:<number>.");
         }
-        return list("person = ?1 and date >= ?2 and date <= ?3", person, startDate, endDate);
+        return new DateRange(startDate, endDate);
+    }
+
+    record DateRange(LocalDate startDate, LocalDate endDate) {
+    }
+
+    @Tool("Creates and persists a new time entry in the system. Parameters: projectName (case-insensitive), activityName (case-insensitive, must exist in the project), firstName and lastName of the person (case-insensitive), date (in ISO format YYYY-MM-DD), duration (decimal number of hours), and idempotencyKey (a unique key you generate for this entry; pass the same key again when retrying the same entry). Returns the created ReportedTime object, or the already existing ReportedTime object if an entry with the same idempotencyKey has been created before. Throws ProjectNotFoundException if project doesn't exist, ActivityNotFoundException if activity doesn't exist, PersonNotFoundException if person doesn't exist, or IdempotencyKeyConflictException if the idempotencyKey was already used for a different entry.")
+    @Transactional
+    public ReportedTime createReportedTime(String projectName, String activityName, String firstName, String lastName,
+                                           LocalDate date, BigDecimal duration, String idempotencyKey) {
+        Person person = personRepository.findByName(firstName, lastName);
+        Project project = projectRepository.findProjectByName(projectName);
+        Activity activity = resolveActivity(project, activityName);
+        if (idempotencyKey == null) {
+            ReportedTime rt = new ReportedTime();
+            rt.activity = activity;
+            rt.person = person;
+            rt.date = date;
+            rt.duration = duration;
+            persist(rt);
+            changes.fire(ReportedTimeChange.of(ReportedTimeChange.Type.CREATED, rt));
+            return rt;
+        }
+
+        for (int attempt = 0; attempt < MAX_INSERT_ATTEMPTS; attempt++) {
+            // A concurrent retry with the same key waits for the first insert to commit and then inserts nothing
+            @SuppressWarnings("unchecked")
+            List<Number> inserted = getEntityManager().createNativeQuery("""
+                            insert into ReportedTime (id, activity_id, person_id, date, duration, idempotencyKey, version)
+                            values (?1, ?2, ?3, ?4, ?5, ?6, 0)
+                            on conflict (idempotencyKey) do nothing
+                            returning id""")
+                    .setParameter(1, nextId())
+                    .setParameter(2, activity.id)
+                    .setParameter(3, person.id)
+                    .setParameter(4, date)
+                    .setParameter(5, duration)
+                    .setParameter(6, idempotencyKey)
+                    .getResultList();
+            if (!inserted.isEmpty()) {
+                ReportedTime rt = findById(inserted.getFirst().longValue());
+                changes.fire(ReportedTimeChange.of(ReportedTimeChange.Type.CREATED, rt));
+                return rt;
+            }
+            ReportedTime existing = find("idempotencyKey", idempotencyKey).firstResult();
+            if (existing == null) {
+                // The entry with this key was deleted after the conflict, so the key is free again
+                continue;
+            }
+            if (!existing.person.id.equals(person.id) || !existing.activity.id.equals(activity.id)
+                    || !existing.date.equals(date) || existing.duration.compareTo(duration) != 0) {
+                throw new Exceptions.IdempotencyKeyConflictException(idempotencyKey);
+            }
+            return existing;
+        }
+        throw new Exceptions.IdempotencyKeyConflictException(idempotencyKey);
+    }
+
+    /**
+     * Allocates an id from the same pooled sequence optimizer as {@code persist}, so a native insert neither uses up
+     * a whole block of the sequence nor hands out ids out of line with the persisted entries.
+     */
+    private long nextId() {
+        SharedSessionContractImplementor session = getSession().unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(ReportedTime.class);
+        return ((Number) ((IdentifierGenerator) persister.getGenerator()).generate(session, null)).longValue();
+    }
+
+    @Transactional
+    public ReportedTime createReportedTime(String projectName, String activityName, String firstName, String lastName,
+                                           LocalDate date, BigDecimal duration) {
+        return createReportedTime(projectName, activityName, firstName, lastName, date, duration, null);
+    }
+
+    @Tool("Deletes a specific time entry from the system. Parameters: projectName (case-insensitive), activityName (case-insensitive), firstName and lastName of the person (case-insensitive), date (in ISO format YYYY-MM-DD), and duration (decimal number of hours). Returns true if an entry was found and deleted, false if no matching entry was found, including when the project, activity or person doesn't exist.")
+    @Transactional
+    public boolean deleteReportedTime(String projectName, String activityName, String firstName, String lastName,
+                                      LocalDate date, BigDecimal duration) {
+        return changeReturning(ReportedTimeChange.Type.DELETED, """
+                        delete from ReportedTime rt using Activity a
+                        where a.id = rt.activity_id and rt.id = (
+                            select min(r.id) from ReportedTime r
+                            join Activity ra on ra.id = r.activity_id
+                            join Project p on p.id = ra.project_id
+                            join Person pe on pe.id = r.person_id
+                            where lower(p.name) = ?1 and lower(ra.name) = ?2
+                            and lower(pe.firstName) = ?3 and lower(pe.lastName) = ?4
+                            and r.date = ?5 and r.duration = ?6)""",
+                projectName.toLowerCase(), activityName.toLowerCase(), firstName.toLowerCase(), lastName.toLowerCase(),
+                date, duration) > 0;
+    }
+
+    @Tool("Deletes a specific time entry by its id. Parameters: id and version (the id and version of a ReportedTime object as returned when it was created or listed). Returns true if the entry was found and deleted, false if no entry with the given id exists, so deleting the same entry twice is harmless. Throws ReportedTimeVersionConflictException if the entry was changed since that version; list it again and confirm with the user before retrying.")
+    @Transactional
+    public boolean deleteReportedTimeById(Long id, long version) {
+        int deleted = changeReturning(ReportedTimeChange.Type.DELETED,
+                "delete from ReportedTime rt using Activity a where a.id = rt.activity_id and rt.id = ?1 and rt.version = ?2",
+                id, version);
+        if (deleted == 0 && count("id", id) > 0) {
+            throw new Exceptions.ReportedTimeVersionConflictException(id, version);
+        }
+        return deleted > 0;
+    }
+
+    @Tool("Changes the date and duration of a specific time entry. Parameters: id and version (the id and version of a ReportedTime object as returned when it was created or listed), date (in ISO format YYYY-MM-DD), and duration (decimal number of hours). Returns the updated ReportedTime object with its new version. Throws ReportedTimeNotFoundException if no entry with the given id exists, or ReportedTimeVersionConflictException if the entry was changed since that version; list it again and confirm with the user before retrying.")
+    @Transactional
+    public ReportedTime updateReportedTime(Long id, long version, LocalDate date, BigDecimal duration) {
+        int updated = changeReturning(ReportedTimeChange.Type.UPDATED, """
+                        update ReportedTime rt set date = ?1, duration = ?2, version = rt.version + 1
+                        from Activity a
+                        where a.id = rt.activity_id and rt.id = ?3 and rt.version = ?4""",
+                date, duration, id, version);
+        ReportedTime rt = findById(id);
+        if (rt == null) {
+            throw new Exceptions.ReportedTimeNotFoundException(id);
+        }
+        if (updated == 0) {
+            throw new Exceptions.ReportedTimeVersionConflictException(id, version);
+        }
+        // The entry may have been loaded before the native update
+        getEntityManager().refresh(rt);
+        return rt;
+    }
+
+    @Tool("Deletes all time entries of a specific person on a specific date in a single operation. Parameters: firstName and lastName of the person (case-insensitive), and date (in ISO format YYYY-MM-DD). Returns the number of deleted entries, which is 0 if the person doesn't exist or has no entries on that date.")
+    @Transactional
+    public long deleteReportedTimesForPersonAndDate(String firstName, String lastName, LocalDate date) {
+        return changeReturning(ReportedTimeChange.Type.DELETED, """
+                        delete from ReportedTime rt using Activity a, Person p
+                        where a.id = rt.activity_id and p.id = rt.person_id and rt.date = ?1
+                        and lower(p.firstName) = ?2 and lower(p.lastName) = ?3""",
+                date, firstName.toLowerCase(), lastName.toLowerCase());
+    }
+
+    @Tool("Moves all time entries of a specific person from one activity to another within a predefined period in a single operation. Parameters: firstName and lastName of the person (case-insensitive), fromProjectName and fromActivityName identifying the current activity (case-insensitive), toProjectName and toActivityName identifying the target activity (case-insensitive), and period (same values as for listReportedTimesForPersonAndPeriod: 'THIS_WEEK', 'LAST_WEEK', 'WEEK_NUMBER:n', 'THIS_MONTH', 'LAST_MONTH' or 'MONTH:n'). Returns the number of moved entries. Throws ProjectNotFoundException or ActivityNotFoundException if the target activity doesn't exist, or IllegalArgumentException if the period format is invalid.")
+    @Transactional
+    public int moveReportedTimes(String firstName, String lastName, String fromProjectName, String fromActivityName,
+                                 String toProjectName, String toActivityName, String period) {
+        DateRange range = resolvePeriod(period);
+        Activity target = activityRepository.getActivityByName(toActivityName, toProjectName);
+        // Joins the target activity as a, so that the returned project is the one the entries moved to
+        return changeReturning(ReportedTimeChange.Type.UPDATED, """
+                        update ReportedTime rt set activity_id = a.id, version = rt.version + 1
+                        from Activity a, Activity source, Project sourceProject, Person p
+                        where a.id = ?1 and source.id = rt.activity_id and sourceProject.id = source.project_id
+                        and p.id = rt.person_id and rt.date >= ?2 and rt.date <= ?3
+                        and lower(p.firstName) = ?4 and lower(p.lastName) = ?5
+                        and lower(source.name) = ?6 and lower(sourceProject.name) = ?7""",
+                target.id, range.startDate(), range.endDate(), firstName.toLowerCase(), lastName.toLowerCase(),
+                fromActivityName.toLowerCase(), fromProjectName.toLowerCase());
+    }
+
+    /**
+     * Persists the given rows in JDBC batches, committing and clearing the persistence context after
+     * each batch so memory use and transaction length stay constant regardless of the number of rows.
+     * A failing row rolls back its own batch only; the batches before it stay imported.
+     *
+     * @return the number of imported rows
+     * @throws Exceptions.ImportFailedException naming the failing row
+     */
+    public long importReportedTimes(Iterator<ReportedTimeRow> rows) {
+        Map<List<String>, Person> persons = new HashMap<>();
+        Map<List<String>, Activity> activities = new HashMap<>();
+        long[] row = {0};
+        long imported = 0;
+        try {
+            while (rows.hasNext()) {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    for (int i = 0; i < IMPORT_BATCH_SIZE && rows.hasNext(); i++) {
+                        row[0]++;
+                        ReportedTimeRow next = rows.next();
+                        ReportedTime rt = new ReportedTime();
+                        rt.person = persons.computeIfAbsent(
+                                List.of(next.firstName().toLowerCase(), next.lastName().toLowerCase()),
+                                key -> personRepository.findByName(next.firstName(), next.lastName()));
+                        rt.activity = activities.computeIfAbsent(
+                                List.of(next.projectName().toLowerCase(), next.activityName().toLowerCase()),
+                                key -> activityRepository.getActivityByName(next.activityName(), next.projectName()));
+                        rt.date = next.date();
+                        rt.duration = next.duration();
+                        persist(rt);
+                        changes.fire(ReportedTimeChange.of(ReportedTimeChange.Type.CREATED, rt));
+                    }
+                });
+                imported = row[0];
+            }
+        } catch (RuntimeException e) {
+            throw new Exceptions.ImportFailedException(row[0], imported, e);
+        }
+        return imported;
+    }
+
+    /**
+     * Passes all time entries of a project within a date range to the given consumer, reading them
+     * through a database cursor instead of loading the whole result. The cursor needs a single
+     * transaction, so it may run up to {@code reported-times.export.transaction-timeout} seconds.
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "reported-times.export.transaction-timeout")
+    public void exportReportedTimesForProjectAndTimespan(String projectName, LocalDate startDate, LocalDate endDate,
+                                                         Consumer<ReportedTimeRow> consumer) {
+        Project project = projectRepository.findProjectByName(projectName);
+        try (Stream<ReportedTimeRow> rows = find("activity.project.id = ?1 and date >= ?2 and date <= ?3 order by date, id",
+                project.id, startDate, endDate)
+                .project(ReportedTimeRow.class)
+                .withHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .stream()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Tool("Retrieves all time entries for a specific person within a date range. Parameters: firstName and lastName of the person (case-insensitive), startDate (inclusive, in ISO format YYYY-MM-DD), and endDate (inclusive, in ISO format YYYY-MM-DD). Returns a list of ReportedTime objects within the specified date range. The list will be empty if no entries are found. Throws PersonNotFoundException if the person doesn't exist.")
+    @Transactional
+    public List<ReportedTime> listReportedTimesForPersonAndTimespan(String firstName, String lastName,
+                                                                    LocalDate startDate, LocalDate endDate) {
+        Person person = personRepository.findByName(firstName, lastName);
+        return listReadOnly("person.id = ?1 and date >= ?2 and date <= ?3", person.id, startDate, endDate);
+    }
+
+    @Tool("Retrieves all time entries for a specific person during a predefined period. Parameters: firstName and lastName of the person (case-insensitive), and period (a string specifying the time period). Valid period values are: 'THIS_WEEK' (current week from Monday to Sunday), 'LAST_WEEK' (previous week), 'WEEK_NUMBER:n' (specific week number in current year), 'THIS_MONTH' (current month), 'LAST_MONTH' (previous month), or 'MONTH:n' (specific month number 1-12 in current year). Returns a list of ReportedTime objects within the calculated date range. The list will be empty if no entries are found. Throws PersonNotFoundException if the person doesn't exist, or IllegalArgumentException if the period format is invalid.")
+    @Transactional
+    public List<ReportedTime> listReportedTimesForPersonAndPeriod(String firstName, String lastName, String period) {
+        Person person = personRepository.findByName(firstName, lastName);
+        DateRange range = resolvePeriod(period);
+        return listReadOnly("person.id = ?1 and date >= ?2 and date <= ?3", person.id, range.startDate(), range.endDate());
     }
 
     @Tool("Retrieves all time entries for a specific person on a specific project. Parameters: firstName and lastName of the person (case-insensitive), and projectName (case-insensitive). Returns a list of ReportedTime objects for the specified person and project. The list will be empty if no entries are found. Throws PersonNotFoundException if the person doesn't exist or ProjectNotFoundException if the project doesn't exist.")
@@ -121,13 +380,142 @@ public class ReportedTimeRepository implements PanacheRepository<ReportedTime> {
     public List<ReportedTime> listReportedTimesForPersonAndProject(String firstName, String lastName, String projectName) {
         Project project = projectRepository.findProjectByName(projectName);
         Person person = personRepository.findByName(firstName, lastName);
-        return list("person = ?1 and activity.project = ?2", person, project);
+        return listReadOnly("person.id = ?1 and activity.project.id = ?2", person.id, project.id);
     }
 
     @Tool("Retrieves all time entries for a specific project within a date range. Parameters: projectName (case-insensitive), startDate (inclusive, in ISO format YYYY-MM-DD), and endDate (inclusive, in ISO format YYYY-MM-DD). Returns a list of ReportedTime objects for the specified project within the date range. The list will be empty if no entries are found. Throws ProjectNotFoundException if the project doesn't exist.")
     @Transactional
     public List<ReportedTime> listReportedTimesForProjectAndTimespan(String projectName, LocalDate startDate, LocalDate endDate) {
         Project project = projectRepository.findProjectByName(projectName);
-        return list("activity.project = ?1 and date >= ?2 and date <= ?3", project, startDate, endDate);
+        return listReadOnly("activity.project.id = ?1 and date >= ?2 and date <= ?3", project.id, startDate, endDate);
+    }
+
+    @Tool("Reports the hours every person spent on a specific project during a predefined period, as a matrix with one row per person and one column per day (for a week) or per ISO week (for a month), instead of listing the entries person by person. Parameters: projectName (case-insensitive), and period (same values as for listReportedTimesForPersonAndPeriod: 'THIS_WEEK', 'LAST_WEEK', 'WEEK_NUMBER:n', 'THIS_MONTH', 'LAST_MONTH' or 'MONTH:n'). Returns a TimeReport object containing startDate, endDate, columns (the day or week labels), rows (firstName, lastName, hours per column and total of each person who reported time on the project) and total. Throws ProjectNotFoundException if the project doesn't exist, or IllegalArgumentException if the period format is invalid.")
+    @Transactional
+    public TimeReport reportTimeForProjectAndPeriod(String projectName, String period) {
+        return reportTimeForProjectAndPeriod(projectName, period, reportedTimeColumns.isReady());
+    }
+
+    /**
+     * Reports on a project from {@link ReportedTimeColumns} or from the database, which must give the same result.
+     */
+    @Transactional
+    TimeReport reportTimeForProjectAndPeriod(String projectName, String period, boolean cached) {
+        Project project = projectRepository.findProjectByName(projectName);
+        return report(project.id, List.of(), resolvePeriod(period), cached);
+    }
+
+    @Tool("Reports the hours several persons spent on all projects during a predefined period, as a matrix with one row per person and one column per day (for a week) or per ISO week (for a month), instead of listing the entries person by person. Parameters: names (the full names of the persons, each as 'firstName lastName', case-insensitive), and period (same values as for listReportedTimesForPersonAndPeriod: 'THIS_WEEK', 'LAST_WEEK', 'WEEK_NUMBER:n', 'THIS_MONTH', 'LAST_MONTH' or 'MONTH:n'). Returns a TimeReport object containing startDate, endDate, columns (the day or week labels), rows (firstName, lastName, hours per column and total of each person, including persons without any hours) and total. Throws PersonNotFoundException if one of the persons doesn't exist, or IllegalArgumentException if the period format is invalid.")
+    @Transactional
+    public TimeReport reportTimeForPersonsAndPeriod(List<String> names, String period) {
+        DateRange range = resolvePeriod(period);
+        List<String> fullNames = names.stream().map(name -> name.strip().replaceAll("\\s+", " ")).toList();
+        List<Person> persons = personRepository.list("lower(firstName || ' ' || lastName) in ?1 order by lastName, firstName, id",
+                fullNames.stream().map(String::toLowerCase).toList());
+        for (String name : fullNames) {
+            if (persons.stream().noneMatch(person -> (person.firstName + " " + person.lastName).equalsIgnoreCase(name))) {
+                int space = name.lastIndexOf(' ');
+                throw new Exceptions.PersonNotFoundException(space < 0 ? name : name.substring(0, space),
+                        space < 0 ? "" : name.substring(space + 1));
+            }
+        }
+        return report(null, persons, range, reportedTimeColumns.isReady());
+    }
+
+    /**
+     * Sums the hours per person and day and pivots them into a person x day matrix, or a person x ISO week matrix
+     * for periods longer than a week. The sums come from {@link ReportedTimeColumns} if it is loaded, otherwise
+     * from one grouped query. Both count every entry in whole minutes and round the hours of each day to two
+     * decimals, so they report the same hours. The given persons get a row even without any hours.
+     *
+     * @param projectId the project to report on, or {@code null} to report on all projects of the given persons
+     * @param cached    whether to sum from {@link ReportedTimeColumns}, which must be ready
+     */
+    private TimeReport report(Long projectId, List<Person> persons, DateRange range, boolean cached) {
+        boolean daily = ChronoUnit.DAYS.between(range.startDate(), range.endDate()) < 7;
+        LocalDate firstColumn = daily ? range.startDate() : range.startDate().with(DayOfWeek.MONDAY);
+        List<String> columns = new ArrayList<>();
+        for (LocalDate column = firstColumn; !column.isAfter(range.endDate()); column = column.plusDays(daily ? 1 : 7)) {
+            columns.add(daily ? column.toString() : "%d-W%02d".formatted(column.get(IsoFields.WEEK_BASED_YEAR),
+                    column.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)));
+        }
+
+        Map<Long, BigDecimal[]> hours = new HashMap<>();
+        Map<Long, ReportedName> names = new HashMap<>();
+        for (Person person : persons) {
+            hours.put(person.id, zeros(columns.size()));
+            names.put(person.id, new ReportedName(person.id, person.firstName, person.lastName));
+        }
+        if (cached) {
+            long[] personIds = projectId == null ? persons.stream().mapToLong(person -> person.id).toArray() : null;
+            long offset = ChronoUnit.DAYS.between(firstColumn, range.startDate());
+            reportedTimeColumns.minutesByPersonAndDay(range.startDate(), range.endDate(), projectId, personIds)
+                    .forEach((personId, minutes) -> {
+                        BigDecimal[] row = hours.computeIfAbsent(personId, id -> zeros(columns.size()));
+                        for (int day = 0; day < minutes.length; day++) {
+                            if (minutes[day] != 0) {
+                                int column = (int) ((offset + day) / (daily ? 1 : 7));
+                                row[column] = row[column].add(hours(minutes[day]));
+                            }
+                        }
+                    });
+            List<Long> unnamed = hours.keySet().stream().filter(id -> !names.containsKey(id)).toList();
+            if (!unnamed.isEmpty()) {
+                personRepository.list("id in ?1", unnamed).forEach(person ->
+                        names.put(person.id, new ReportedName(person.id, person.firstName, person.lastName)));
+            }
+        } else if (projectId != null || !persons.isEmpty()) {
+            List<Object[]> sums = readReplica.read(session -> session.createSelectionQuery(
+                            "select p.id, p.firstName, p.lastName, rt.date, sum(round(rt.duration * 60, 0))"
+                                    + " from ReportedTime rt join rt.person p"
+                                    + " where rt.date >= ?1 and rt.date <= ?2 and "
+                                    + (projectId == null ? "p.id in ?3" : "rt.activity.project.id = ?3")
+                                    + " group by p.id, p.firstName, p.lastName, rt.date", Object[].class)
+                    .setParameter(1, range.startDate())
+                    .setParameter(2, range.endDate())
+                    .setParameter(3, projectId == null ? persons.stream().map(person -> person.id).toList() : projectId)
+                    .list());
+            for (Object[] sum : sums) {
+                Long personId = (Long) sum[0];
+                BigDecimal[] row = hours.computeIfAbsent(personId, id -> zeros(columns.size()));
+                names.putIfAbsent(personId, new ReportedName(personId, (String) sum[1], (String) sum[2]));
+                int column = (int) (ChronoUnit.DAYS.between(firstColumn, (LocalDate) sum[3]) / (daily ? 1 : 7));
+                row[column] = row[column].add(hours(((Number) sum[4]).longValue()));
+            }
+        }
+
+        List<TimeReportRow> rows = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (ReportedName name : names.values().stream().sorted(ReportedName.ORDER).toList()) {
+            BigDecimal[] row = hours.get(name.id());
+            BigDecimal personTotal = Arrays.stream(row).reduce(BigDecimal.ZERO, BigDecimal::add);
+            rows.add(new TimeReportRow(name.firstName(), name.lastName(), List.of(row), personTotal));
+            total = total.add(personTotal);
+        }
+        return new TimeReport(range.startDate(), range.endDate(), columns, rows, total);
+    }
+
+    private static BigDecimal hours(long minutes) {
+        return BigDecimal.valueOf(minutes).divide(MINUTES_PER_HOUR, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal[] zeros(int size) {
+        BigDecimal[] values = new BigDecimal[size];
+        Arrays.fill(values, BigDecimal.ZERO);
+        return values;
+    }
+
+    public record TimeReport(LocalDate startDate, LocalDate endDate, List<String> columns, List<TimeReportRow> rows,
+                             BigDecimal total) {
+    }
+
+    private record ReportedName(Long id, String firstName, String lastName) {
+
+        static final Comparator<ReportedName> ORDER = Comparator.comparing(ReportedName::lastName)
+                .thenComparing(ReportedName::firstName)
+                .thenComparing(ReportedName::id);
+    }
+
+    public record TimeReportRow(String firstName, String lastName, List<BigDecimal> hours, BigDecimal total) {
     }
 }
@@ -0,0 +1,223 @@
+package dev.langchain4j.quarkus.workshop;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bulk import and export of time entries as CSV or JSON. Both directions are streamed,
+ * so the number of rows is not limited by the heap.
+ */
+@Path("/reported-times")
+public class ReportedTimeResource {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String CSV_HEADER = "firstName,lastName,projectName,activityName,date,duration";
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(String[].class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .with(CsvParser.Feature.TRIM_SPACES);
+    private static final List<Class<? extends RuntimeException>> INVALID_INPUT = List.of(
+            Exceptions.ProjectNotFoundException.class, Exceptions.PersonNotFoundException.class,
+            Exceptions.ActivityNotFoundException.class, IllegalArgumentException.class, DateTimeParseException.class,
+            RuntimeJsonMappingException.class);
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @POST
+    @Consumes(TEXT_CSV)
+    @Produces(MediaType.TEXT_PLAIN)
+    public long importCsv(InputStream body) throws IOException {
+        // Records are parsed as they are read, so quoted fields may contain commas, quotes and line breaks
+        try (MappingIterator<String[]> records = CSV_READER.readValues(body)) {
+            Iterator<ReportedTimeRow> rows = stream(records)
+                    .filter(fields -> !String.join(",", fields).equalsIgnoreCase(CSV_HEADER))
+                    .map(ReportedTimeResource::parseCsvRecord)
+                    .map(ReportedTimeResource::requireFields)
+                    .iterator();
+            return reportedTimeRepository.importReportedTimes(rows);
+        }
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.TEXT_PLAIN)
+    public long importJson(InputStream body) throws IOException {
+        try (MappingIterator<ReportedTimeRow> objects = objectMapper.readerFor(ReportedTimeRow.class).readValues(body)) {
+            // Objects may lack fields, which would otherwise only fail once the import looks them up
+            Iterator<ReportedTimeRow> rows = stream(objects)
+                    .map(ReportedTimeResource::requireFields)
+                    .iterator();
+            return reportedTimeRepository.importReportedTimes(rows);
+        }
+    }
+
+    private static <T> Stream<T> stream(Iterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    @GET
+    @Produces(TEXT_CSV)
+    public StreamingOutput exportCsv(@QueryParam("project") String projectName,
+                                     @QueryParam("from") LocalDate startDate, @QueryParam("to") LocalDate endDate) {
+        // Validate the parameters up front so invalid input fails before the response is committed
+        validateExport(projectName, startDate, endDate);
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            reportedTimeRepository.exportReportedTimesForProjectAndTimespan(projectName, startDate, endDate, row -> {
+                try {
+                    writer.write(toCsvLine(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public StreamingOutput exportJson(@QueryParam("project") String projectName,
+                                      @QueryParam("from") LocalDate startDate, @QueryParam("to") LocalDate endDate) {
+        validateExport(projectName, startDate, endDate);
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                reportedTimeRepository.exportReportedTimesForProjectAndTimespan(projectName, startDate, endDate, row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private void validateExport(String projectName, LocalDate startDate, LocalDate endDate) {
+        if (projectName == null || startDate == null || endDate == null) {
+            throw new IllegalArgumentException("The query parameters project, from and to are required");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("from %s is after to %s".formatted(startDate, endDate));
+        }
+        projectRepository.findProjectByName(projectName);
+    }
+
+    @ServerExceptionMapper({Exceptions.ProjectNotFoundException.class, Exceptions.PersonNotFoundException.class,
+            Exceptions.ActivityNotFoundException.class, IllegalArgumentException.class, DateTimeParseException.class,
+            RuntimeJsonMappingException.class})
+    public RestResponse<String> mapInvalidInput(RuntimeException e) {
+        return RestResponse.status(Response.Status.BAD_REQUEST, e.getMessage());
+    }
+
+    @ServerExceptionMapper
+    public RestResponse<String> mapFailedImport(Exceptions.ImportFailedException e) {
+        // The failing row is reported either way, but only invalid rows are the client's fault
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            Throwable failure = cause;
+            if (INVALID_INPUT.stream().anyMatch(type -> type.isInstance(failure))) {
+                return RestResponse.status(Response.Status.BAD_REQUEST, e.getMessage());
+            }
+        }
+        return RestResponse.status(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+    }
+
+    static ReportedTimeRow parseCsvRecord(String[] fields) {
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Expected 6 fields but got %d in record: %s"
+                    .formatted(fields.length, String.join(",", fields)));
+        }
+        return new ReportedTimeRow(fields[0], fields[1], fields[2], fields[3],
+                LocalDate.parse(fields[4]), new BigDecimal(fields[5]));
+    }
+
+    /**
+     * Rejects a row with a missing or blank field, so the import reports it as invalid input with its row number.
+     */
+    static ReportedTimeRow requireFields(ReportedTimeRow row) {
+        List<String> missing = new ArrayList<>();
+        if (row.firstName() == null || row.firstName().isBlank()) {
+            missing.add("firstName");
+        }
+        if (row.lastName() == null || row.lastName().isBlank()) {
+            missing.add("lastName");
+        }
+        if (row.projectName() == null || row.projectName().isBlank()) {
+            missing.add("projectName");
+        }
+        if (row.activityName() == null || row.activityName().isBlank()) {
+            missing.add("activityName");
+        }
+        if (row.date() == null) {
+            missing.add("date");
+        }
+        if (row.duration() == null) {
+            missing.add("duration");
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + String.join(", ", missing));
+        }
+        return row;
+    }
+
+    static String toCsvLine(ReportedTimeRow row) {
+        return String.join(",", csvField(row.firstName()), csvField(row.lastName()), csvField(row.projectName()),
+                csvField(row.activityName()), row.date().toString(), row.duration().toPlainString()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
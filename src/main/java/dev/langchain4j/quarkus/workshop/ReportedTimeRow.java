@@ -0,0 +1,18 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat representation of a time entry, used for bulk import and export.
+ */
+public record ReportedTimeRow(
+        @ProjectedFieldName("person.firstName") String firstName,
+        @ProjectedFieldName("person.lastName") String lastName,
+        @ProjectedFieldName("activity.project.name") String projectName,
+        @ProjectedFieldName("activity.name") String activityName,
+        LocalDate date,
+        BigDecimal duration) {
+}
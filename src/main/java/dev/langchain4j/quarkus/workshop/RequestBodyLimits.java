@@ -0,0 +1,64 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Limits request bodies to {@code http.max-body-size}, except for the streamed bulk import of
+ * {@link ReportedTimeResource}, which may send up to {@code quarkus.http.limits.max-body-size}.
+ * Bodies with a content length are rejected up front; chunked bodies are cut off by Quarkus
+ * once they exceed the limit stored in the routing context.
+ */
+@ApplicationScoped
+public class RequestBodyLimits {
+
+    // Routing context key read by Quarkus REST while it streams a body without content length
+    private static final String MAX_REQUEST_SIZE = "io.quarkus.max-request-size";
+    private static final String IMPORT_PATH = "/reported-times";
+
+    @ConfigProperty(name = "http.max-body-size", defaultValue = "10M")
+    MemorySize maxBodySize;
+
+    void install(@Observes Router router) {
+        // Runs right after the global limit of Quarkus, which is sized for the import
+        router.route().order(-1).handler(this::limit);
+    }
+
+    private void limit(RoutingContext context) {
+        if (context.request().method() == HttpMethod.POST && IMPORT_PATH.equals(context.normalizedPath())) {
+            context.next();
+            return;
+        }
+        long limit = maxBodySize.asLongValue();
+        String contentLength = context.request().getHeader(HttpHeaderNames.CONTENT_LENGTH);
+        if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.strip());
+            } catch (NumberFormatException e) {
+                reject(context, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            if (length > limit) {
+                reject(context, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+        }
+        context.put(MAX_REQUEST_SIZE, limit);
+        context.next();
+    }
+
+    private static void reject(RoutingContext context, HttpResponseStatus status) {
+        context.response()
+                .putHeader(HttpHeaderNames.CONNECTION, "close")
+                .setStatusCode(status.code())
+                .end();
+    }
+}
@@ -0,0 +1,118 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A stand-in for the OpenAI chat model that replays scripted tool-call sequences, so the WebSocket, tool and
+ * database layers can be load-tested offline. Every call waits {@code agent.fake-model.latency} to simulate
+ * the model's response time.
+ * <p>
+ * The script is chosen by the user message: "week" registers a full week for Alice Smith, "month" lists her
+ * entries of the current month, anything else is answered without tool calls. Replaces the configured chat
+ * model when built with {@code agent.fake-model.enabled=true}, e.g. with the {@code loadtest} profile.
+ */
+@ApplicationScoped
+@Alternative
+@Priority(1)
+@IfBuildProperty(name = "agent.fake-model.enabled", stringValue = "true")
+public class ScriptedChatModel implements ChatLanguageModel {
+
+    private static final String PERSON = "\"firstName\": \"Alice\", \"lastName\": \"Smith\"";
+
+    @ConfigProperty(name = "agent.fake-model.latency", defaultValue = "500ms")
+    Duration latency;
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return generate(messages, List.of());
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        int turnStart = messages.size() - 1;
+        while (turnStart > 0 && !(messages.get(turnStart) instanceof UserMessage)) {
+            turnStart--;
+        }
+        Script script = Script.of(messages.get(turnStart) instanceof UserMessage user ? user.singleText() : "");
+        long completedSteps = messages.subList(turnStart, messages.size()).stream()
+                .filter(message -> message instanceof AiMessage ai && ai.hasToolExecutionRequests())
+                .count();
+
+        AiMessage answer = completedSteps < script.steps.size()
+                ? AiMessage.from(script.steps.get((int) completedSteps).get())
+                : AiMessage.from(script.reply);
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int inputTokens = messages.stream().mapToInt(message -> message.toString().length() / 4).sum();
+        return Response.from(answer, new TokenUsage(inputTokens, answer.toString().length() / 4));
+    }
+
+    private enum Script {
+
+        REGISTER_WEEK("week", "I have registered 8 hours of Maintenance in Project Apollo for every day of this week.",
+                () -> List.of(request("findByName", "{" + PERSON + "}")),
+                () -> Stream.iterate(LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), date -> date.plusDays(1))
+                        .limit(5)
+                        .map(date -> request("createReportedTime", """
+                                {"projectName": "Project Apollo", "activityName": "Maintenance", %s,
+                                 "date": "%s", "duration": 8, "idempotencyKey": "%s"}""".formatted(PERSON, date, UUID.randomUUID())))
+                        .toList()),
+        LIST_MONTH("month", "Here are your time entries for this month.",
+                () -> List.of(request("listReportedTimesForPersonAndPeriod", "{" + PERSON + ", \"period\": \"THIS_MONTH\"}"))),
+        CHAT("", "How can I help you with your time registration?");
+
+        private final String keyword;
+        private final String reply;
+        private final List<Supplier<List<ToolExecutionRequest>>> steps;
+
+        @SafeVarargs
+        Script(String keyword, String reply, Supplier<List<ToolExecutionRequest>>... steps) {
+            this.keyword = keyword;
+            this.reply = reply;
+            this.steps = List.of(steps);
+        }
+
+        static Script of(String userMessage) {
+            // Without the retrieved documents appended to it, which mention weeks as well
+            String text = RagRetriever.userText(userMessage).toLowerCase();
+            for (Script script : values()) {
+                if (text.contains(script.keyword)) {
+                    return script;
+                }
+            }
+            return CHAT;
+        }
+
+        private static ToolExecutionRequest request(String tool, String arguments) {
+            return ToolExecutionRequest.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name(tool)
+                    .arguments(arguments)
+                    .build();
+        }
+    }
+}
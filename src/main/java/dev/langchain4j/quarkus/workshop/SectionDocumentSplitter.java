@@ -0,0 +1,90 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.document.splitter.DocumentByParagraphSplitter;
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a document at its section headings first and only then into paragraphs of at most
+ * {@code maxSegmentSize} characters, so a segment never spans two sections. Each segment is prefixed with the heading
+ * of its section, which is also stored as {@code heading} metadata next to the document's {@code file_name}. The
+ * prefix counts towards {@code maxSegmentSize}; a heading too long to leave room for the body is only kept as metadata.
+ * <p>
+ * A heading is either a Markdown heading or a short line without terminal punctuation that stands on its own, with a
+ * blank line (or the start of the document) before it and a blank line after it.
+ */
+class SectionDocumentSplitter implements DocumentSplitter {
+
+    private static final int MAX_HEADING_LENGTH = 80;
+    private static final Pattern MARKDOWN_HEADING = Pattern.compile("^#{1,6}\\s+");
+
+    private final int maxSegmentSize;
+    private final int maxOverlapSize;
+
+    SectionDocumentSplitter(int maxSegmentSize, int maxOverlapSize) {
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxOverlapSize = maxOverlapSize;
+    }
+
+    @Override
+    public List<TextSegment> split(Document document) {
+        List<TextSegment> segments = new ArrayList<>();
+        for (Section section : sections(document.text())) {
+            if (section.body().isBlank()) {
+                continue;
+            }
+            Metadata metadata = document.metadata().copy();
+            if (section.heading() != null) {
+                metadata.put("heading", section.heading());
+            }
+            String prefix = section.heading() == null ? "" : section.heading() + "\n";
+            if (prefix.length() > maxSegmentSize / 2) {
+                prefix = "";
+            }
+            int budget = maxSegmentSize - prefix.length();
+            DocumentSplitter paragraphs = new DocumentByParagraphSplitter(budget, Math.min(maxOverlapSize, budget / 2));
+            for (TextSegment part : paragraphs.split(Document.from(section.body(), metadata))) {
+                segments.add(TextSegment.from(prefix + part.text(),
+                        part.metadata().copy().put("index", String.valueOf(segments.size()))));
+            }
+        }
+        return segments;
+    }
+
+    private static List<Section> sections(String text) {
+        List<Section> sections = new ArrayList<>();
+        String heading = null;
+        StringBuilder body = new StringBuilder();
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            String trimmed = line.strip();
+            boolean standalone = (i == 0 || lines[i - 1].isBlank()) && i + 1 < lines.length && lines[i + 1].isBlank();
+            if (MARKDOWN_HEADING.matcher(trimmed).find() || standalone && isHeadingLine(trimmed)) {
+                sections.add(new Section(heading, body.toString()));
+                heading = MARKDOWN_HEADING.matcher(trimmed).replaceFirst("");
+                body.setLength(0);
+            } else {
+                body.append(line).append('\n');
+            }
+        }
+        sections.add(new Section(heading, body.toString()));
+        return sections;
+    }
+
+    private static boolean isHeadingLine(String line) {
+        if (line.isEmpty() || line.length() > MAX_HEADING_LENGTH || line.startsWith("-") || line.startsWith("*")) {
+            return false;
+        }
+        return ".:;,!?".indexOf(line.charAt(line.length() - 1)) < 0 && !line.contains(": ");
+    }
+
+    private record Section(String heading, String body) {
+    }
+}
@@ -0,0 +1,31 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+/**
+ * Keeps the state of every agent session outside the instance that happens to serve it: the chat memory of
+ * {@link CustomerSupportAgent}, keyed by the session token as memory id, and the {@link ConversationState}.
+ * A client reconnecting with its token continues the conversation on any instance.
+ * <p>
+ * Sessions that have not been used for {@code agent.session.ttl} expire. The implementation is chosen at build
+ * time with {@code agent.session.store}: {@code postgres} (the default) or {@code memory} for a single instance.
+ */
+public interface SessionStore extends ChatMemoryStore {
+
+    /**
+     * Starts a new, empty session and returns its token.
+     */
+    String create();
+
+    /**
+     * Whether the session exists and has not expired.
+     */
+    boolean exists(String token);
+
+    /**
+     * Returns the state of the session, or an empty state if the session is unknown.
+     */
+    ConversationState getState(String token);
+
+    void updateState(String token, ConversationState state);
+}
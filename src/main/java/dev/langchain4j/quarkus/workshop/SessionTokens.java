@@ -0,0 +1,27 @@
+package dev.langchain4j.quarkus.workshop;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Session tokens of the {@link SessionStore}: 128 random bits, URL-safe so clients can pass them as query parameter.
+ */
+final class SessionTokens {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Pattern FORMAT = Pattern.compile("[A-Za-z0-9_-]{22}");
+
+    private SessionTokens() {
+    }
+
+    static String generate() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static boolean isValid(String token) {
+        return token != null && FORMAT.matcher(token).matches();
+    }
+}
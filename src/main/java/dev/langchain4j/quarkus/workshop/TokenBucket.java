@@ -0,0 +1,38 @@
+package dev.langchain4j.quarkus.workshop;
+
+/**
+ * A token bucket holding at most {@code capacity} tokens and refilled continuously at {@code refillPerSecond}, so
+ * short bursts up to the capacity pass while the sustained rate is capped at the refill rate.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire()} for a request that was turned away for another reason.
+     */
+    synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
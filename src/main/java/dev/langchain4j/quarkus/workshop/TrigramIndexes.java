@@ -0,0 +1,37 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the {@code pg_trgm} extension and the trigram indexes behind the fuzzy name searches of the repositories,
+ * once Hibernate has created the schema.
+ */
+@ApplicationScoped
+public class TrigramIndexes {
+
+    private static final String[] STATEMENTS = {
+            "create extension if not exists pg_trgm",
+            "create index if not exists person_name_trgm on Person using gin ((lower(firstName || ' ' || lastName)) gin_trgm_ops)",
+            "create index if not exists project_name_trgm on Project using gin (lower(name) gin_trgm_ops)",
+            "create index if not exists activity_name_trgm on Activity using gin (lower(name) gin_trgm_ops)"
+    };
+
+    void create(@Observes StartupEvent ev, AgroalDataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : STATEMENTS) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            Log.warn("Could not create the trigram indexes, fuzzy name search is unavailable", e);
+        }
+    }
+}
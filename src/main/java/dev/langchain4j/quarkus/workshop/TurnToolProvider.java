@@ -0,0 +1,212 @@
+package dev.langchain4j.quarkus.workshop;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProvider;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.langchain4j.runtime.ToolsRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offers {@link CustomerSupportAgent} only the tools that fit the current state of the conversation, instead of
+ * sending the schema of every tool with every request:
+ * <ul>
+ *     <li>the person and the project/activity lookup tools are always offered,</li>
+ *     <li>the time entry tools only once the user is identified: the user introduced themselves as an existing
+ *     person ("I am Alice Smith", or just the name when asked for it), or as a new person the agent then
+ *     created,</li>
+ *     <li>the tools that update, delete or move time entries once the user asks for a correction.</li>
+ * </ul>
+ * The selection only ever grows within a session and keeps a fixed order, so consecutive requests share the
+ * longest possible prefix for provider-side prompt caching. The state of a conversation is read from the
+ * {@link SessionStore} once per connection and written back only when it changes. Other people the user mentions,
+ * such as a colleague whose hours should be moved, never identify the user, and a person is only looked up when the
+ * user introduces themselves under a new name.
+ */
+@ApplicationScoped
+public class TurnToolProvider implements ToolProvider {
+
+    private static final Pattern CORRECTION = Pattern.compile(
+            "\\b(delete|remove|undo|wrong|mistake|correct|change|move|fix|instead|cancel)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELF_IDENTIFICATION = Pattern.compile(
+            "\\b(?i:I am|I'm|I’m|my name is)\\s+(\\p{Lu}\\p{L}+)\\s+(\\p{Lu}\\p{L}+)\\b");
+    // The answer when the agent asks for the user's name
+    private static final Pattern NAME_ONLY = Pattern.compile("^\\s*(\\p{Lu}\\p{L}+)\\s+(\\p{Lu}\\p{L}+)\\s*[.!]?\\s*$");
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    ActivityRepository activityRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Inject
+    SessionStore sessions;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, ConversationState> conversations = new ConcurrentHashMap<>();
+    private Tools tools;
+    private DistributionSummary offered;
+
+    @PostConstruct
+    void init() {
+        tools = new Tools();
+        offered = DistributionSummary.builder("agent.tools.offered")
+                .description("Number of tools offered to the model per turn")
+                .register(registry);
+    }
+
+    @Override
+    public ToolProviderResult provideTools(ToolProviderRequest request) {
+        Tools all = tools;
+        String token = request.chatMemoryId().toString();
+        ConversationState conversation = conversation(token);
+        boolean wasIdentified = conversation.isIdentified();
+        boolean wasCorrecting = conversation.isCorrecting();
+        // Everything the user wrote this turn, but not the date and documents the retriever appended to it
+        String message = RagRetriever.userText(request.userMessage().singleText());
+        if (!wasIdentified) {
+            identifyBySelfIntroduction(conversation, message);
+        }
+        boolean correcting = conversation.correcting(CORRECTION.matcher(message).find());
+        if (conversation.isIdentified() != wasIdentified || correcting != wasCorrecting) {
+            sessions.updateState(token, conversation);
+        }
+
+        ToolProviderResult.Builder result = ToolProviderResult.builder()
+                .addAll(all.identification)
+                .addAll(all.lookup);
+        if (conversation.isIdentified()) {
+            result.addAll(all.timeEntries);
+            if (correcting) {
+                result.addAll(all.corrections);
+            }
+        }
+        ToolProviderResult selected = result.build();
+        offered.record(selected.tools().size());
+        return selected;
+    }
+
+    /**
+     * Forgets the state of a conversation whose connection closed; it is read from the {@link SessionStore} again
+     * when the session is resumed.
+     */
+    public void forget(String token) {
+        conversations.remove(token);
+    }
+
+    private ConversationState conversation(String token) {
+        return conversations.computeIfAbsent(token, sessions::getState);
+    }
+
+    private void identifyBySelfIntroduction(ConversationState conversation, String message) {
+        Matcher matcher = SELF_IDENTIFICATION.matcher(message);
+        if (!matcher.find()) {
+            matcher = NAME_ONLY.matcher(message);
+            if (!matcher.find()) {
+                return;
+            }
+        }
+        String name = matcher.group(1) + " " + matcher.group(2);
+        if (!name.equalsIgnoreCase(conversation.claimedName())) {
+            conversation.claimed(name);
+            if (exists(matcher.group(1), matcher.group(2))) {
+                conversation.identified(name);
+            }
+        }
+    }
+
+    private boolean exists(String firstName, String lastName) {
+        try {
+            personRepository.findByName(firstName, lastName);
+            return true;
+        } catch (Exceptions.PersonNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks the user as identified once a person tool was called for the name the user introduced themselves with,
+     * and that person exists afterwards, e.g. because the agent just created them.
+     */
+    private ToolExecutor identifying(ToolExecutor executor) {
+        return (request, memoryId) -> {
+            String result = executor.execute(request, memoryId);
+            String token = memoryId.toString();
+            ConversationState conversation = conversation(token);
+            if (conversation.isIdentified()) {
+                return result;
+            }
+            try {
+                JsonNode arguments = objectMapper.readTree(request.arguments());
+                if (arguments.hasNonNull("firstName") && arguments.hasNonNull("lastName")) {
+                    String firstName = arguments.get("firstName").asText();
+                    String lastName = arguments.get("lastName").asText();
+                    if ((firstName + " " + lastName).equalsIgnoreCase(conversation.claimedName()) && exists(firstName, lastName)) {
+                        conversation.identified(firstName + " " + lastName);
+                        sessions.updateState(token, conversation);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // the tool has already reported the malformed arguments to the model
+            }
+            return result;
+        };
+    }
+
+    private final class Tools {
+
+        private final Map<ToolSpecification, ToolExecutor> identification = new LinkedHashMap<>();
+        private final Map<ToolSpecification, ToolExecutor> lookup = new LinkedHashMap<>();
+        private final Map<ToolSpecification, ToolExecutor> timeEntries = new LinkedHashMap<>();
+        private final Map<ToolSpecification, ToolExecutor> corrections = new LinkedHashMap<>();
+
+        Tools() {
+            load(personRepository, identification);
+            identification.replaceAll((specification, executor) -> identifying(executor));
+            load(projectRepository, lookup);
+            load(activityRepository, lookup);
+            Map<ToolSpecification, ToolExecutor> reportedTimeTools = new LinkedHashMap<>();
+            load(reportedTimeRepository, reportedTimeTools);
+            reportedTimeTools.forEach((specification, executor) -> {
+                String name = specification.name();
+                boolean correction = name.startsWith("delete") || name.startsWith("move") || name.startsWith("update");
+                (correction ? corrections : timeEntries).put(specification, executor);
+            });
+        }
+
+        private static void load(Object repository, Map<ToolSpecification, ToolExecutor> target) {
+            List<ToolSpecification> specifications = new ArrayList<>();
+            Map<String, ToolExecutor> executors = new HashMap<>();
+            ToolsRecorder.populateToolMetadata(List.of(repository), specifications, executors);
+            specifications.forEach(specification -> target.put(specification, executors.get(specification.name())));
+        }
+    }
+}
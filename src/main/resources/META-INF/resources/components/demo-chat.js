@@ -33,10 +33,25 @@ export class DemoChat extends LitElement {
         const chatBot = document.getElementsByTagName("chat-bot")[0];
 
         const protocol = (window.location.protocol === 'https:') ? 'wss' : 'ws';
-        const socket = new WebSocket(protocol + '://' + window.location.host + '/timereport-agent');
-
         const that = this;
-        socket.onmessage = function (event) {
+        let socket;
+
+        // Reconnects resume the conversation through the session token sent as the first frame
+        const connect = function () {
+            const session = sessionStorage.getItem('timereport-session');
+            const query = session ? '?session=' + encodeURIComponent(session) : '';
+            socket = new WebSocket(protocol + '://' + window.location.host + '/timereport-agent' + query);
+            socket.onmessage = onMessage;
+            socket.onclose = function () {
+                setTimeout(connect, 1000);
+            };
+        };
+
+        const onMessage = function (event) {
+            if (event.data.startsWith('session:')) {
+                sessionStorage.setItem('timereport-session', event.data.substring('session:'.length));
+                return;
+            }
             chatBot.hideLastLoading();
             // LLM response
             let lastMessage;
@@ -70,7 +85,8 @@ export class DemoChat extends LitElement {
                 let bubble = bubbles.item(bubbles.length - 1);
                 bubble.innerHTML = that._renderMarkdown(event.data);
             }
-        }
+        };
+        connect();
 
         chatBot.addEventListener("sent", function (e) {
             if (e.detail.message.sender.name !== "Bot") {
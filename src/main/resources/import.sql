@@ -41,13 +41,13 @@ ALTER SEQUENCE activity_seq RESTART WITH 5;
 -- ============================================
 -- Inserting Reported Time Entries (for February 2025)
 -- ============================================
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (1, 1, 1, '2025-02-05', 3.5);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (2, 2, 2, '2025-02-10', 4.0);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (3, 3, 3, '2025-02-15', 2.0);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (4, 4, 4, '2025-02-20', 1.5);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (5, 2, 5, '2025-02-25', 5.0);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (6, 1, 3, '2025-02-12', 2.5);
-INSERT INTO ReportedTime (id, activity_id, person_id, date, duration) VALUES (7, 4, 1, '2025-02-18', 3.0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (1, 1, 1, '2025-02-05', 3.5, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (2, 2, 2, '2025-02-10', 4.0, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (3, 3, 3, '2025-02-15', 2.0, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (4, 4, 4, '2025-02-20', 1.5, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (5, 2, 5, '2025-02-25', 5.0, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (6, 1, 3, '2025-02-12', 2.5, 0);
+INSERT INTO ReportedTime (id, activity_id, person_id, date, duration, version) VALUES (7, 4, 1, '2025-02-18', 3.0, 0);
 
 -- Restart the reported time sequence so that the next id is 8
 ALTER SEQUENCE reportedtime_seq RESTART WITH 8;
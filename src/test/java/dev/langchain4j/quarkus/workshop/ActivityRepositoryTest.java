@@ -71,4 +71,13 @@ class ActivityRepositoryTest {
 
         assertThat(activities).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchActivitiesByName() {
+        List<ActivityRepository.ActivityMatch> matches = activityRepository.searchActivitiesByName("activityon", "sample project");
+
+        assertThat(matches).isNotEmpty();
+        assertThat(matches.getFirst().name()).isEqualTo("ActivityOne");
+        assertThat(matches.getFirst().projectName()).isEqualTo("SampleProject");
+    }
+}
@@ -0,0 +1,122 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.logging.Log;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives many concurrent {@code /timereport-agent} sessions against {@link ScriptedChatModel}, so the throughput
+ * ceiling of the WebSocket, tool and database layers can be measured without network access. Each session
+ * registers a week and lists the month, which takes five model calls (three for the week, two for the month) and
+ * seven tool executions.
+ * Run with {@code ./mvnw test -Dtest=AgentLoadTest -Dbenchmark=true}.
+ */
+@QuarkusTest
+@TestProfile(AgentLoadTest.LoadTestProfile.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AgentLoadTest {
+
+    private static final int SESSIONS = 200;
+    private static final List<Map.Entry<String, String>> CONVERSATION = List.of(
+            Map.entry("I am Alice Smith, please register my week",
+                    "I have registered 8 hours of Maintenance in Project Apollo for every day of this week."),
+            Map.entry("Show me this month", "Here are your time entries for this month."));
+    private static final int ENTRIES_PER_SESSION = 5;
+    private static final long REPLY_TIMEOUT_SECONDS = 60;
+
+    public static class LoadTestProfile implements QuarkusTestProfile {
+        @Override
+        public String getConfigProfile() {
+            return "loadtest";
+        }
+    }
+
+    @TestHTTPResource("/timereport-agent")
+    URI agent;
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Test
+    void concurrentSessions() throws Exception {
+        URI uri = URI.create(agent.toString().replaceFirst("^http", "ws"));
+        HttpClient client = HttpClient.newHttpClient();
+        List<Long> turnMillis = Collections.synchronizedList(new ArrayList<>());
+        long entriesBefore = aliceEntries();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                sessions.add(executor.submit(() -> {
+                    BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+                    WebSocket webSocket = client.newWebSocketBuilder().buildAsync(uri, new Collector(replies)).join();
+                    assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                            .startsWith(CustomerSupportAgentWebSocket.SESSION_PREFIX);
+                    assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS)).startsWith("Welcome");
+                    for (Map.Entry<String, String> turn : CONVERSATION) {
+                        long turnStart = System.nanoTime();
+                        webSocket.sendText(turn.getKey(), true).join();
+                        assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(turn.getValue());
+                        turnMillis.add((System.nanoTime() - turnStart) / 1_000_000);
+                    }
+                    webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+                    return null;
+                }));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(turnMillis);
+        sorted.sort(null);
+        Log.infof("%d sessions, %d turns in %.1f s: %.1f turns/s, latency p50 %d ms, p95 %d ms, p99 %d ms",
+                SESSIONS, sorted.size(), seconds, sorted.size() / seconds,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99));
+        assertThat(sorted).hasSize(SESSIONS * CONVERSATION.size());
+        assertThat(aliceEntries()).isEqualTo(entriesBefore + (long) SESSIONS * ENTRIES_PER_SESSION);
+    }
+
+    private long aliceEntries() {
+        return reportedTimeRepository.count("person.firstName = ?1 and person.lastName = ?2", "Alice", "Smith");
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    record Collector(BlockingQueue<String> replies) implements WebSocket.Listener {
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            // Replies are small enough to arrive in a single frame
+            replies.add(data.toString());
+            webSocket.request(1);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+public class ChatAdmissionTest {
+
+    @Inject
+    ChatAdmission admission;
+
+    @Test
+    public void testQueuesAndCoalescesWhileTurnIsRunning() {
+        String session = "test-queue";
+        try {
+            assertThat(admission.offer(session, "first")).isEqualTo(ChatAdmission.Outcome.RUN);
+            assertThat(admission.offer(session, "second")).isEqualTo(ChatAdmission.Outcome.QUEUED);
+            assertThat(admission.offer(session, "third")).isEqualTo(ChatAdmission.Outcome.COALESCED);
+
+            assertThat(admission.next(session)).isEqualTo("second\nthird");
+            assertThat(admission.next(session)).isNull();
+            assertThat(admission.offer(session, "fourth")).isEqualTo(ChatAdmission.Outcome.RUN);
+        } finally {
+            admission.close(session);
+        }
+    }
+
+    @Test
+    public void testRejectsMessagesBeyondSessionBurst() {
+        String session = "test-rate";
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertThat(admission.offer(session, "message " + i)).isNotEqualTo(ChatAdmission.Outcome.REJECTED_SESSION_RATE);
+                admission.next(session);
+            }
+            assertThat(admission.offer(session, "one too many")).isEqualTo(ChatAdmission.Outcome.REJECTED_SESSION_RATE);
+        } finally {
+            admission.close(session);
+        }
+    }
+
+    @Test
+    public void testQueueFullRejectionReturnsTokens() {
+        // Three tokens per session and globally, never refilled
+        ChatAdmission rejecting = new ChatAdmission(3, 0, 3, 0, 1, "reject", new SimpleMeterRegistry());
+        String session = "test-queue-full";
+
+        assertThat(rejecting.offer(session, "first")).isEqualTo(ChatAdmission.Outcome.RUN);
+        assertThat(rejecting.offer(session, "second")).isEqualTo(ChatAdmission.Outcome.QUEUED);
+        for (int i = 0; i < 5; i++) {
+            assertThat(rejecting.offer(session, "retry " + i)).isEqualTo(ChatAdmission.Outcome.REJECTED_QUEUE_FULL);
+        }
+
+        assertThat(rejecting.next(session)).isEqualTo("second");
+        assertThat(rejecting.next(session)).isNull();
+        assertThat(rejecting.offer(session, "third")).isEqualTo(ChatAdmission.Outcome.RUN);
+        assertThat(rejecting.offer("other-session", "first")).isEqualTo(ChatAdmission.Outcome.REJECTED_GLOBAL_RATE);
+    }
+
+    @Test
+    public void testAbortAcceptsNewTurn() {
+        String session = "test-abort";
+        try {
+            admission.offer(session, "failing");
+            admission.offer(session, "queued");
+            admission.abort(session);
+
+            assertThat(admission.next(session)).isNull();
+            assertThat(admission.offer(session, "retry")).isEqualTo(ChatAdmission.Outcome.RUN);
+        } finally {
+            admission.close(session);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without RAG ingestion but with {@code embedding.loading=eager}, so only the warm-up uses the model at startup.
+ */
+@QuarkusTest
+@TestProfile(EmbeddingModelEagerLoadingTest.EagerLoadingProfile.class)
+public class EmbeddingModelEagerLoadingTest {
+
+    public static class EagerLoadingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("rag.ingestion.enabled", "false",
+                    "embedding.loading", "eager",
+                    "embedding.warm-up.iterations", "5");
+        }
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testModelIsLoadedAndWarmedUpAtStartup() {
+        InjectableBean<EmbeddingModel> bean = Arc.container().instance(EmbeddingModel.class).getBean();
+        assertThat(Arc.container().getActiveContext(ApplicationScoped.class).get(bean)).isNotNull();
+        assertThat(registry.get("rag.embedding.duration").timer().count()).isEqualTo(5);
+    }
+}
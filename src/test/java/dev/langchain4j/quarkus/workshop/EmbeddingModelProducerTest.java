@@ -0,0 +1,85 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs without RAG ingestion, which makes the embedding model load on first use.
+ */
+@QuarkusTest
+@TestProfile(EmbeddingModelProducerTest.IngestionDisabledProfile.class)
+public class EmbeddingModelProducerTest {
+
+    public static class IngestionDisabledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("rag.ingestion.enabled", "false");
+        }
+    }
+
+    @Inject
+    EmbeddingModel embeddingModel;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testModelIsLoadedOnFirstUse() {
+        assertThat(isCreated()).isFalse();
+        assertThat(registry.find("rag.embedding.duration").timer()).isNull();
+
+        Embedding embedding = embeddingModel.embed("How many hours may I work per week?").content();
+
+        assertThat(isCreated()).isTrue();
+        assertThat(embedding.dimension()).isEqualTo(384);
+        assertThat(registry.get("rag.embedding.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDisposeStopsThreadsAndRejectsRequests() throws Exception {
+        EmbeddingModelProducer producer = new EmbeddingModelProducer();
+        long threadsBefore = embeddingThreads();
+        EmbeddingModel model = producer.create(1, Optional.of(2), true, 16, Duration.ofMillis(2),
+                new SimpleMeterRegistry());
+        assertThat(model.embedAll(List.of(TextSegment.from("first"), TextSegment.from("second"))).content())
+                .hasSize(2);
+        assertThat(model.embed("query").content().dimension()).isEqualTo(384);
+        assertThat(embeddingThreads()).isGreaterThan(threadsBefore);
+
+        producer.close(model);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> embeddingThreads() == threadsBefore);
+        assertThat(catchThrowable(() -> model.embed("query"))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static boolean isCreated() {
+        InjectableBean<EmbeddingModel> bean = Arc.container().instance(EmbeddingModel.class).getBean();
+        return Arc.container().getActiveContext(ApplicationScoped.class).get(bean) != null;
+    }
+
+    private static long embeddingThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && thread.getName().startsWith("embedding-"))
+                .count();
+    }
+}
@@ -0,0 +1,103 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.query.Query;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+public class HybridContentRetrieverTest {
+
+    private static final String TABLE = "hybrid_retriever_test";
+
+    // Every text gets the same vector, so the vector side ranks by insertion order only
+    private static final EmbeddingModel CONSTANT_MODEL = segments -> Response.from(segments.stream()
+            .map(segment -> Embedding.from(new float[]{1, 0, 0}))
+            .toList());
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private InMemoryEmbeddingStore<TextSegment> store;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table %s (embedding_id uuid primary key, text text, metadata json)".formatted(TABLE));
+        }
+        store = new InMemoryEmbeddingStore<>();
+        TextSegment vectorOnly = TextSegment.from("Employees are entitled to five weeks of vacation per year.");
+        store.add(CONSTANT_MODEL.embed(vectorOnly).content(), vectorOnly);
+        insert("Overtime is compensated with 50 percent extra pay.", "{\"file_name\": \"overtime.md\", \"heading\": \"Compensation\"}");
+        insert("The working week is 40 hours.", null);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table " + TABLE);
+        }
+    }
+
+    @Test
+    public void testKeywordOnlyHitIsReturnedWithItsMetadata() {
+        HybridContentRetriever retriever = new HybridContentRetriever(store, CONSTANT_MODEL, dataSource, TABLE, 10, 3);
+
+        // Not every word of the question occurs in the segment, which an AND query would not match
+        List<Content> contents = retriever.retrieve(Query.from("How is overtime on weekends paid?"));
+
+        assertThat(contents).extracting(content -> content.textSegment().text())
+                .contains("Overtime is compensated with 50 percent extra pay.")
+                .doesNotContain("The working week is 40 hours.");
+        TextSegment hit = contents.stream()
+                .map(Content::textSegment)
+                .filter(segment -> segment.text().startsWith("Overtime"))
+                .findFirst().orElseThrow();
+        assertThat(hit.metadata().getString("file_name")).isEqualTo("overtime.md");
+        assertThat(hit.metadata().getString("heading")).isEqualTo("Compensation");
+    }
+
+    @Test
+    public void testCompoundWordsMatchTheirParts() throws SQLException {
+        insert("Part time work is possible.", null);
+        HybridContentRetriever retriever = new HybridContentRetriever(store, CONSTANT_MODEL, dataSource, TABLE, 10, 3);
+
+        // The compound is parsed into a phrase of its parts, which must not be required as a whole
+        List<Content> contents = retriever.retrieve(Query.from("Is full-time required?"));
+
+        assertThat(contents).extracting(content -> content.textSegment().text())
+                .contains("Part time work is possible.");
+    }
+
+    private void insert(String text, String metadata) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "insert into %s (embedding_id, text, metadata) values (?, ?, ?::json)".formatted(TABLE))) {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setString(2, text);
+            statement.setString(3, metadata);
+            statement.executeUpdate();
+        }
+    }
+}
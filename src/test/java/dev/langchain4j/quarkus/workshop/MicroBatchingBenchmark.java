@@ -0,0 +1,71 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the query embedding throughput of the in-process model with and without {@link MicroBatchingEmbeddingModel}
+ * when many sessions embed their queries at the same time.
+ * Run with {@code ./mvnw test -Dtest=MicroBatchingBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MicroBatchingBenchmark {
+
+    private static final int CONCURRENT_QUERIES = 64;
+    private static final int QUERIES_PER_CLIENT = 50;
+
+    @Test
+    void compareBatching() throws Exception {
+        double unbatched = measure(false);
+        double batched = measure(true);
+
+        Log.infof("Single inferences:  %.1f queries/s", unbatched);
+        Log.infof("Batched inferences: %.1f queries/s (%.2fx)", batched, batched / unbatched);
+        assertThat(batched).isPositive();
+    }
+
+    private static double measure(boolean batching) throws Exception {
+        EmbeddingModelProducer producer = new EmbeddingModelProducer();
+        EmbeddingModel model = producer.create(1, Optional.empty(), batching, 16, Duration.ofMillis(2),
+                new SimpleMeterRegistry());
+        try {
+            // Warm up before measuring
+            run(model, QUERIES_PER_CLIENT / 5);
+            long start = System.nanoTime();
+            run(model, QUERIES_PER_CLIENT);
+            return CONCURRENT_QUERIES * QUERIES_PER_CLIENT / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            producer.close(model);
+        }
+    }
+
+    private static void run(EmbeddingModel model, int queriesPerClient) throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int client = 0; client < CONCURRENT_QUERIES; client++) {
+                int id = client;
+                running.add(clients.submit(() -> {
+                    for (int i = 0; i < queriesPerClient; i++) {
+                        model.embed("How many hours may employee %d work in week %d?".formatted(id, i));
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        }
+    }
+}
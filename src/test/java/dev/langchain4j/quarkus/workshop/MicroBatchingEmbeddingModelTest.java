@@ -0,0 +1,56 @@
+package dev.langchain4j.quarkus.workshop;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtSession;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class MicroBatchingEmbeddingModelTest {
+
+    // Different lengths, so the shorter texts are padded in the batch
+    private static final List<String> TEXTS = List.of(
+            "Overtime",
+            "How many hours may I work per week according to Swedish law?",
+            "Register eight hours of maintenance in Project Apollo for Monday, Tuesday and Wednesday, and four hours of design on Thursday.");
+
+    @Test
+    public void testBatchedEmbeddingsMatchSingleSegmentEmbeddings() throws Exception {
+        EmbeddingModelProducer producer = new EmbeddingModelProducer();
+        EmbeddingModel single = producer.create(1, Optional.of(1), false, 16, Duration.ofMillis(2), new SimpleMeterRegistry());
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        try (OrtSession session = environment.createSession(EmbeddingModelProducer.read(EmbeddingModelProducer.MODEL),
+                new OrtSession.SessionOptions());
+             MicroBatchingEmbeddingModel.BatchEncoder encoder = new MicroBatchingEmbeddingModel.BatchEncoder(
+                     environment, session, EmbeddingModelProducer.open(EmbeddingModelProducer.TOKENIZER))) {
+            float[][] batched = encoder.embed(TEXTS);
+
+            assertThat(batched).hasSize(TEXTS.size());
+            for (int i = 0; i < TEXTS.size(); i++) {
+                float[] expected = single.embed(TEXTS.get(i)).content().vector();
+                assertThat(cosine(batched[i], expected)).isCloseTo(1.0, within(1e-3));
+            }
+        } finally {
+            producer.close(single);
+        }
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
@@ -0,0 +1,140 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@QuarkusTest
+public class OutboxEventRepositoryTest {
+
+    /**
+     * Fails the writing transaction after the outbox has recorded its change, when armed.
+     */
+    @ApplicationScoped
+    public static class FailingObserver {
+
+        @Inject
+        OutboxEventRepository outboxEventRepository;
+
+        private volatile boolean armed;
+        private volatile long recorded;
+
+        void arm(boolean armed) {
+            this.armed = armed;
+        }
+
+        long recorded() {
+            return recorded;
+        }
+
+        void fail(@Observes @Priority(Interceptor.Priority.APPLICATION + 1000) ReportedTimeChange change) {
+            if (armed) {
+                recorded = outboxEventRepository.count();
+                throw new IllegalStateException("Failing after the change was recorded");
+            }
+        }
+    }
+
+    @Inject
+    OutboxEventRepository outboxEventRepository;
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    ActivityRepository activityRepository;
+
+    @Inject
+    FailingObserver failingObserver;
+
+    @BeforeEach
+    @Transactional
+    public void setup() {
+        outboxEventRepository.deleteAll();
+
+        Person testPerson = new Person();
+        testPerson.firstName = "Mick";
+        testPerson.lastName = "Doe";
+        personRepository.persist(testPerson);
+
+        Project testProject = new Project();
+        testProject.name = "OutboxProject";
+        projectRepository.persist(testProject);
+
+        Activity testActivity = new Activity();
+        testActivity.name = "OutboxActivity";
+        testActivity.project = testProject;
+        activityRepository.persist(testActivity);
+    }
+
+    @AfterEach
+    @Transactional
+    void tearDown() {
+        failingObserver.arm(false);
+        outboxEventRepository.deleteAll();
+        reportedTimeRepository.deleteAll();
+        activityRepository.deleteAll();
+        projectRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void testCommittedChangesAreRelayed() {
+        LocalDate today = LocalDate.now();
+        ReportedTime rt = reportedTimeRepository.createReportedTime("OutboxProject", "OutboxActivity", "Mick", "Doe",
+                today, BigDecimal.valueOf(8));
+        reportedTimeRepository.deleteReportedTimeById(rt.id, rt.version);
+
+        List<OutboxEvent> events = outboxEventRepository.listAll(Sort.by("id"));
+        assertThat(events)
+                .extracting(event -> event.type)
+                .containsExactly(ReportedTimeChange.Type.CREATED, ReportedTimeChange.Type.DELETED);
+        assertThat(events).allSatisfy(event -> assertThat(event.reportedTimeId).isEqualTo(rt.id));
+        assertThat(events.getFirst().payload)
+                .contains("\"type\":\"CREATED\"")
+                .contains("\"date\":\"" + today + "\"")
+                .contains("\"version\":0");
+        assertThat(events.getLast().payload).contains("\"version\":1");
+
+        assertThat(outboxRelay.relay()).isEqualTo(2);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+    }
+
+    @Test
+    public void testRolledBackChangesAreNotRecorded() {
+        failingObserver.arm(true);
+        Throwable thrown = catchThrowable(() -> reportedTimeRepository.createReportedTime(
+                "OutboxProject", "OutboxActivity", "Mick", "Doe", LocalDate.now(), BigDecimal.valueOf(8)));
+
+        assertThat(thrown).hasStackTraceContaining("Failing after the change was recorded");
+        // The event was written within the transaction, and rolled back with it
+        assertThat(failingObserver.recorded()).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(reportedTimeRepository.count()).isZero();
+    }
+}
@@ -3,6 +3,8 @@ package dev.langchain4j.quarkus.workshop;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -19,6 +21,9 @@ public class PersonRepositoryTest {
     @Inject
     PersonRepository personRepository;
 
+    @Inject
+    SessionFactory sessionFactory;
+
     @AfterAll
     @Transactional
     void tearDown() {
@@ -62,4 +67,33 @@ public class PersonRepositoryTest {
                 .extracting("firstName", "lastName")
                 .contains(tuple(firstName1, lastName1), tuple(firstName2, lastName2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRepeatedFindByNameRunsNoSql() {
+        personRepository.createPerson("Grace", "Hopper");
+        personRepository.findByName("Grace", "Hopper");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        Person person = personRepository.findByName("grace", "HOPPER");
+
+        assertThat(person.lastName).isEqualTo("Hopper");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    @Transactional
+    public void testSearchPersonsByName() {
+        // given
+        personRepository.createPerson("Margaret", "Hamilton");
+
+        // when
+        List<PersonRepository.PersonMatch> matches = personRepository.searchPersonsByName("margret hamilton");
+
+        // then
+        assertThat(matches).isNotEmpty();
+        assertThat(matches.getFirst())
+                .extracting("firstName", "lastName")
+                .containsExactly("Margaret", "Hamilton");
+    }
+}
@@ -74,4 +74,16 @@ public class ProjectRepositoryTest {
                 .isInstanceOf(Exceptions.ProjectNotFoundException.class)
                 .hasMessageContaining("NonExisting");
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    public void testSearchProjectsByName() {
+        // Act
+        List<ProjectRepository.ProjectMatch> matches = projectRepository.searchProjectsByName("testprojct");
+
+        // Assert using AssertJ
+        Assertions.assertThat(matches).isNotEmpty();
+        Assertions.assertThat(matches.getFirst().name()).isEqualTo("TestProject");
+        Assertions.assertThat(matches.getFirst().score()).isBetween(0.0, 1.0);
+    }
+}
@@ -0,0 +1,158 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@QuarkusTest
+@TestProfile(ReportedTimeColumnsTest.CacheEnabledProfile.class)
+public class ReportedTimeColumnsTest {
+
+    public static class CacheEnabledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "reporting.cache.enabled", "true",
+                    "reporting.cache.max-buffered-changes", "2");
+        }
+    }
+
+    @Inject
+    ReportedTimeColumns reportedTimeColumns;
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    ActivityRepository activityRepository;
+
+    private Person testPerson;
+    private Project testProject;
+    private Project otherProject;
+
+    @BeforeEach
+    @Transactional
+    public void setup() {
+        testPerson = new Person();
+        testPerson.firstName = "Mick";
+        testPerson.lastName = "Doe";
+        personRepository.persist(testPerson);
+
+        testProject = new Project();
+        testProject.name = "CachedProject";
+        projectRepository.persist(testProject);
+        Activity testActivity = new Activity();
+        testActivity.name = "CachedActivity";
+        testActivity.project = testProject;
+        activityRepository.persist(testActivity);
+
+        otherProject = new Project();
+        otherProject.name = "OtherCachedProject";
+        projectRepository.persist(otherProject);
+        Activity otherActivity = new Activity();
+        otherActivity.name = "OtherCachedActivity";
+        otherActivity.project = otherProject;
+        activityRepository.persist(otherActivity);
+    }
+
+    @AfterEach
+    @Transactional
+    void tearDown() {
+        reportedTimeRepository.deleteAll();
+        activityRepository.deleteAll();
+        projectRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void testFollowsCommittedChanges() {
+        await().atMost(Duration.ofSeconds(30)).until(reportedTimeColumns::isReady);
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        ReportedTime first = reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                "Mick", "Doe", monday, new BigDecimal("7.5"));
+        reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                "Mick", "Doe", monday.plusDays(1), BigDecimal.valueOf(8));
+
+        Map<Long, int[]> minutes = reportedTimeColumns.minutesByPersonAndDay(monday, monday.plusDays(6),
+                testProject.id, null);
+        assertThat(minutes.get(testPerson.id)).startsWith(450, 480, 0);
+
+        reportedTimeRepository.deleteReportedTimeById(first.id, first.version);
+        reportedTimeRepository.moveReportedTimes("Mick", "Doe", "CachedProject", "CachedActivity",
+                "OtherCachedProject", "OtherCachedActivity", "THIS_WEEK");
+
+        assertThat(reportedTimeColumns.minutesByPersonAndDay(monday, monday.plusDays(6), testProject.id, null))
+                .doesNotContainKey(testPerson.id);
+        assertThat(reportedTimeColumns.minutesByPersonAndDay(monday, monday.plusDays(6), null,
+                new long[]{testPerson.id}).get(testPerson.id)).startsWith(0, 480);
+
+        ReportedTimeRepository.TimeReport report = reportedTimeRepository
+                .reportTimeForProjectAndPeriod("OtherCachedProject", "THIS_WEEK");
+        assertThat(report.rows()).singleElement()
+                .satisfies(row -> assertThat(row.total()).isEqualByComparingTo("8"));
+    }
+
+    @Test
+    public void testReloadsMonthsOfLargeTransactions() {
+        await().atMost(Duration.ofSeconds(30)).until(reportedTimeColumns::isReady);
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        for (int i = 0; i < 3; i++) {
+            reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                    "Mick", "Doe", monday, BigDecimal.ONE);
+        }
+        assertThat(reportedTimeColumns.minutesByPersonAndDay(monday, monday, testProject.id, null)
+                .get(testPerson.id)).containsExactly(180);
+
+        // Three deletions in one transaction exceed the two buffered changes, so the month is reloaded instead
+        assertThat(reportedTimeRepository.deleteReportedTimesForPersonAndDate("Mick", "Doe", monday)).isEqualTo(3);
+
+        await().atMost(Duration.ofSeconds(30)).until(reportedTimeColumns::isReady);
+        assertThat(reportedTimeColumns.minutesByPersonAndDay(monday, monday, testProject.id, null))
+                .doesNotContainKey(testPerson.id);
+    }
+
+    @Test
+    public void testReportsSameHoursAsDatabase() {
+        await().atMost(Duration.ofSeconds(30)).until(reportedTimeColumns::isReady);
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        // 0.33 hours are 19.8 minutes and 0.01 hours 0.6 minutes, both rounded to whole minutes by either path
+        for (int i = 0; i < 3; i++) {
+            reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                    "Mick", "Doe", monday, new BigDecimal("0.33"));
+        }
+        reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                "Mick", "Doe", monday.plusDays(1), new BigDecimal("7.49"));
+        reportedTimeRepository.createReportedTime("CachedProject", "CachedActivity",
+                "Mick", "Doe", monday.plusDays(2), new BigDecimal("0.01"));
+
+        ReportedTimeRepository.TimeReport cached = reportedTimeRepository
+                .reportTimeForProjectAndPeriod("CachedProject", "THIS_WEEK", true);
+        ReportedTimeRepository.TimeReport fromDatabase = reportedTimeRepository
+                .reportTimeForProjectAndPeriod("CachedProject", "THIS_WEEK", false);
+
+        assertThat(cached).isEqualTo(fromDatabase);
+        assertThat(cached.rows()).singleElement()
+                .satisfies(row -> assertThat(row.hours()).startsWith(
+                        new BigDecimal("1.00"), new BigDecimal("7.48"), new BigDecimal("0.02")));
+    }
+}
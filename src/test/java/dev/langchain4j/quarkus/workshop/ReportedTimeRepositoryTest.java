@@ -11,7 +11,14 @@ import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -121,6 +128,173 @@ public class ReportedTimeRepositoryTest {
         assertThat(found).isEmpty();
     }
 
+    @Test
+    @Transactional
+    public void testCreateReportedTimeIsIdempotent() {
+        LocalDate date = LocalDate.now();
+        BigDecimal duration = BigDecimal.valueOf(8);
+
+        ReportedTime first = reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                date, duration, "entry-1");
+        // Retrying with the same key must not create a second entry.
+        ReportedTime retried = reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                date, duration, "entry-1");
+
+        assertThat(retried.id).isEqualTo(first.id);
+        assertThat(reportedTimeRepository.count("person", testPerson)).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void testCreateReportedTimeRejectsReusedKey() {
+        LocalDate date = LocalDate.now();
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                date, BigDecimal.valueOf(8), "entry-2");
+
+        Throwable thrown = catchThrowable(() -> reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                date, BigDecimal.valueOf(4), "entry-2"));
+
+        assertThat(thrown)
+                .isInstanceOf(Exceptions.IdempotencyKeyConflictException.class)
+                .hasMessageContaining("entry-2");
+    }
+
+    @Test
+    public void testConcurrentRetriesCreateOneEntry() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Long> retry = () -> {
+            start.await();
+            return reportedTimeRepository.createReportedTime(
+                    testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                    LocalDate.now(), BigDecimal.valueOf(8), "entry-3").id;
+        };
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<Long>> retries = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                retries.add(executor.submit(retry));
+            }
+            start.countDown();
+            List<Long> ids = new ArrayList<>();
+            for (Future<Long> id : retries) {
+                ids.add(id.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(ids).containsOnly(ids.getFirst());
+        }
+        assertThat(reportedTimeRepository.count("idempotencyKey", "entry-3")).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void testDeleteReportedTimeById() {
+        ReportedTime rt = reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                LocalDate.now(), BigDecimal.valueOf(4));
+
+        assertThat(reportedTimeRepository.deleteReportedTimeById(rt.id, rt.version)).isTrue();
+        // A second delete of the same entry is a no-op.
+        assertThat(reportedTimeRepository.deleteReportedTimeById(rt.id, rt.version)).isFalse();
+    }
+
+    @Test
+    public void testConflictingWritersAreDetected() {
+        ReportedTime rt = reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                LocalDate.now(), BigDecimal.valueOf(4));
+        long seen = rt.version;
+
+        // Both writers saw the same version; the first one to write wins
+        ReportedTime updated = reportedTimeRepository.updateReportedTime(rt.id, seen, LocalDate.now(), BigDecimal.valueOf(6));
+        assertThat(updated.version).isEqualTo(seen + 1);
+
+        assertThat(catchThrowable(() -> reportedTimeRepository.deleteReportedTimeById(rt.id, seen)))
+                .isInstanceOf(Exceptions.ReportedTimeVersionConflictException.class)
+                .hasMessageContaining("version " + seen);
+        assertThat(catchThrowable(() -> reportedTimeRepository.updateReportedTime(rt.id, seen, LocalDate.now(),
+                BigDecimal.valueOf(2))))
+                .isInstanceOf(Exceptions.ReportedTimeVersionConflictException.class);
+        assertThat(reportedTimeRepository.findById(rt.id).duration).isEqualByComparingTo("6");
+
+        // With the current version the second writer succeeds
+        assertThat(reportedTimeRepository.deleteReportedTimeById(rt.id, updated.version)).isTrue();
+        assertThat(catchThrowable(() -> reportedTimeRepository.updateReportedTime(rt.id, updated.version,
+                LocalDate.now(), BigDecimal.valueOf(2))))
+                .isInstanceOf(Exceptions.ReportedTimeNotFoundException.class);
+    }
+
+    @Test
+    @Transactional
+    public void testDeleteReportedTimesForPersonAndDate() {
+        LocalDate today = LocalDate.now();
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                today, BigDecimal.valueOf(4));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                today, BigDecimal.valueOf(3));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                today.minusDays(1), BigDecimal.valueOf(2));
+
+        long deleted = reportedTimeRepository.deleteReportedTimesForPersonAndDate(
+                testPerson.firstName, testPerson.lastName, today);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(reportedTimeRepository.count("person", testPerson)).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void testMoveReportedTimes() {
+        Activity otherActivity = new Activity();
+        otherActivity.name = "OtherActivity";
+        otherActivity.project = testProject;
+        activityRepository.persist(otherActivity);
+
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday, BigDecimal.valueOf(4));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday.plusDays(1), BigDecimal.valueOf(6));
+        // Outside this week, must not be moved
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday.minusDays(7), BigDecimal.valueOf(2));
+
+        int moved = reportedTimeRepository.moveReportedTimes(testPerson.firstName, testPerson.lastName,
+                testProject.name, testActivity.name, testProject.name, otherActivity.name, "THIS_WEEK");
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(reportedTimeRepository.count("activity", otherActivity)).isEqualTo(2);
+        assertThat(reportedTimeRepository.count("activity", testActivity)).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void testImportAndExportReportedTimes() {
+        LocalDate today = LocalDate.now();
+        List<ReportedTimeRow> rows = List.of(
+                new ReportedTimeRow("mick", "doe", testProject.name, testActivity.name, today, BigDecimal.valueOf(4)),
+                new ReportedTimeRow("Mick", "Doe", testProject.name, testActivity.name, today.plusDays(1), BigDecimal.valueOf(6)),
+                new ReportedTimeRow("Mick", "Doe", testProject.name, testActivity.name, today.plusDays(10), BigDecimal.valueOf(2)));
+
+        long imported = reportedTimeRepository.importReportedTimes(rows.iterator());
+        assertThat(imported).isEqualTo(3);
+
+        List<ReportedTimeRow> exported = new ArrayList<>();
+        reportedTimeRepository.exportReportedTimesForProjectAndTimespan(testProject.name, today, today.plusDays(1),
+                exported::add);
+        assertThat(exported)
+                .extracting(ReportedTimeRow::date)
+                .containsExactly(today, today.plusDays(1));
+        assertThat(exported.getFirst().firstName()).isEqualTo("Mick");
+    }
+
     @Test
     @Transactional
     public void testListReportedTimesForPersonAndTimespan() {
@@ -199,6 +373,78 @@ public class ReportedTimeRepositoryTest {
                 .listReportedTimesForProjectAndTimespan(testProject.name, today, today.plusDays(1));
         assertThat(results).hasSize(2);
     }
+
+    @Test
+    @Transactional
+    public void testReportTimeForProjectAndPeriod() {
+        Person otherPerson = new Person();
+        otherPerson.firstName = "Anna";
+        otherPerson.lastName = "Berg";
+        personRepository.persist(otherPerson);
+
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday, BigDecimal.valueOf(4));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday, BigDecimal.valueOf(2));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, otherPerson.firstName, otherPerson.lastName,
+                monday.plusDays(2), BigDecimal.valueOf(8));
+        // Outside this week, must not be counted
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                monday.minusDays(7), BigDecimal.valueOf(3));
+
+        ReportedTimeRepository.TimeReport report = reportedTimeRepository
+                .reportTimeForProjectAndPeriod(testProject.name, "THIS_WEEK");
+
+        assertThat(report.columns()).hasSize(7).startsWith(monday.toString());
+        assertThat(report.rows())
+                .extracting(ReportedTimeRepository.TimeReportRow::lastName)
+                .containsExactly("Berg", "Doe");
+        assertThat(report.rows().get(0).hours().get(2)).isEqualByComparingTo("8");
+        assertThat(report.rows().get(1).hours().get(0)).isEqualByComparingTo("6");
+        assertThat(report.rows().get(1).total()).isEqualByComparingTo("6");
+        assertThat(report.total()).isEqualByComparingTo("14");
+    }
+
+    @Test
+    @Transactional
+    public void testReportTimeForPersonsAndPeriod() {
+        Person otherPerson = new Person();
+        otherPerson.firstName = "Anna";
+        otherPerson.lastName = "Berg";
+        personRepository.persist(otherPerson);
+
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                firstOfMonth, BigDecimal.valueOf(4));
+        reportedTimeRepository.createReportedTime(
+                testProject.name, testActivity.name, testPerson.firstName, testPerson.lastName,
+                firstOfMonth.plusDays(7), BigDecimal.valueOf(5));
+
+        ReportedTimeRepository.TimeReport report = reportedTimeRepository
+                .reportTimeForPersonsAndPeriod(List.of("mick doe", "Anna  Berg"), "THIS_MONTH");
+
+        // One column per ISO week touching the month, and a row for Anna although she has no hours
+        assertThat(report.columns()).hasSizeBetween(4, 6);
+        assertThat(report.rows())
+                .extracting(ReportedTimeRepository.TimeReportRow::firstName)
+                .containsExactly("Anna", "Mick");
+        assertThat(report.rows().get(0).total()).isEqualByComparingTo("0");
+        assertThat(report.rows().get(1).hours().get(0)).isEqualByComparingTo("4");
+        assertThat(report.rows().get(1).hours().get(1)).isEqualByComparingTo("5");
+
+        Throwable thrown = catchThrowable(() ->
+                reportedTimeRepository.reportTimeForPersonsAndPeriod(List.of("Mick Doe", "No Body"), "THIS_MONTH"));
+        assertThat(thrown)
+                .isInstanceOf(Exceptions.PersonNotFoundException.class)
+                .hasMessageContaining("first name No and last name Body");
+    }
+
     @Test
     @Transactional
     public void testListReportedTimesForPersonAndPeriodThisWeek() {
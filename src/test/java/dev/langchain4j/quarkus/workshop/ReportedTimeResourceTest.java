@@ -0,0 +1,127 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+@QuarkusTest
+public class ReportedTimeResourceTest {
+
+    private static final String PROJECT = "Apollo, \"Phase 2\"";
+    private static final String CSV = """
+            firstName,lastName,projectName,activityName,date,duration
+            Mick,Doe,"Apollo, ""Phase 2""\","Design
+            review",2025-03-17,4.00
+            Mick,Doe,"Apollo, ""Phase 2""\","Design
+            review",2025-03-18,6.50
+            """;
+
+    @Inject
+    ReportedTimeRepository reportedTimeRepository;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    ActivityRepository activityRepository;
+
+    @BeforeEach
+    @Transactional
+    public void setup() {
+        Person testPerson = new Person();
+        testPerson.firstName = "Mick";
+        testPerson.lastName = "Doe";
+        personRepository.persist(testPerson);
+
+        Project testProject = new Project();
+        testProject.name = PROJECT;
+        projectRepository.persist(testProject);
+
+        Activity testActivity = new Activity();
+        testActivity.name = "Design\nreview";
+        testActivity.project = testProject;
+        activityRepository.persist(testActivity);
+    }
+
+    @AfterEach
+    @Transactional
+    void tearDown() {
+        reportedTimeRepository.deleteAll();
+        activityRepository.deleteAll();
+        projectRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void testCsvRoundTrip() {
+        given().contentType("text/csv").body(CSV)
+                .when().post("/reported-times")
+                .then().statusCode(200).body(is("2"));
+
+        String exported = given().accept("text/csv")
+                .queryParam("project", PROJECT).queryParam("from", "2025-03-17").queryParam("to", "2025-03-18")
+                .when().get("/reported-times")
+                .then().statusCode(200).extract().asString();
+        assertThat(exported).isEqualTo(CSV);
+
+        given().contentType("text/csv").body(exported)
+                .when().post("/reported-times")
+                .then().statusCode(200).body(is("2"));
+        assertThat(reportedTimeRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        String json = """
+                [{"firstName":"Mick","lastName":"Doe","projectName":"Apollo, \\"Phase 2\\"","activityName":"Design\\nreview","date":"2025-03-17","duration":4.00}]""";
+        given().contentType("application/json").body(json)
+                .when().post("/reported-times")
+                .then().statusCode(200).body(is("1"));
+
+        given().accept("application/json")
+                .queryParam("project", PROJECT).queryParam("from", "2025-03-17").queryParam("to", "2025-03-17")
+                .when().get("/reported-times")
+                .then().statusCode(200)
+                .body("[0].projectName", is(PROJECT))
+                .body("[0].activityName", is("Design\nreview"));
+    }
+
+    @Test
+    public void testImportReportsFailingRow() {
+        String csv = CSV + "Mick,Doe,Unknown,Design,2025-03-19,1.00\n";
+        given().contentType("text/csv").body(csv)
+                .when().post("/reported-times")
+                .then().statusCode(400).body(containsString("row 3"));
+        assertThat(reportedTimeRepository.count()).isZero();
+    }
+
+    @Test
+    public void testImportReportsRowWithMissingField() {
+        String json = """
+                [{"firstName":"Mick","lastName":"Doe","projectName":"Apollo, \\"Phase 2\\"","activityName":"Design\\nreview","date":"2025-03-17","duration":4.00},
+                 {"firstName":"Mick","projectName":"Apollo, \\"Phase 2\\"","activityName":"Design\\nreview","date":"2025-03-18","duration":2.00}]""";
+        given().contentType("application/json").body(json)
+                .when().post("/reported-times")
+                .then().statusCode(400).body(containsString("row 2"), containsString("lastName"));
+        assertThat(reportedTimeRepository.count()).isZero();
+    }
+
+    @Test
+    public void testExportRequiresParameters() {
+        given().accept("text/csv")
+                .queryParam("project", PROJECT)
+                .when().get("/reported-times")
+                .then().statusCode(400);
+    }
+}
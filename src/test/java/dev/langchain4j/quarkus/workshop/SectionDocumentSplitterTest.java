@@ -0,0 +1,130 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SectionDocumentSplitterTest {
+
+    private final SectionDocumentSplitter splitter = new SectionDocumentSplitter(200, 0);
+
+    @Test
+    public void testMarkdownHeadings() {
+        List<TextSegment> segments = split("""
+                # Working hours
+                A normal working week is 40 hours.
+
+                ## Rest
+                Employees get 11 consecutive hours of daily rest.
+                """);
+
+        assertThat(segments).extracting(TextSegment::text).containsExactly(
+                "Working hours\nA normal working week is 40 hours.",
+                "Rest\nEmployees get 11 consecutive hours of daily rest.");
+        assertThat(segments).extracting(segment -> segment.metadata().getString("heading"))
+                .containsExactly("Working hours", "Rest");
+        assertThat(segments).allSatisfy(segment -> assertThat(segment.metadata().getString("file_name")).isEqualTo("act.md"));
+        assertThat(segments).extracting(segment -> segment.metadata().getString("index")).containsExactly("0", "1");
+    }
+
+    @Test
+    public void testNumberedHeadings() {
+        List<TextSegment> segments = split("""
+                1. Scope
+
+                The act applies to all work done for an employer.
+
+                2.1 Overtime
+
+                Overtime may not exceed 200 hours per year.
+                1. Overtime is registered per day.
+                """);
+
+        assertThat(segments).extracting(segment -> segment.metadata().getString("heading"))
+                .containsExactly("1. Scope", "2.1 Overtime");
+        // A numbered line ending in a full stop belongs to the body
+        assertThat(segments.get(1).text()).endsWith("1. Overtime is registered per day.");
+    }
+
+    @Test
+    public void testAllCapsHeadings() {
+        List<TextSegment> segments = split("""
+                WORKING HOURS ACT
+
+                This act regulates working hours.
+
+                SECTION 5
+
+                Ordinary working hours may not exceed 40 hours per week.
+                """);
+
+        assertThat(segments).extracting(segment -> segment.metadata().getString("heading"))
+                .containsExactly("WORKING HOURS ACT", "SECTION 5");
+        assertThat(segments.getLast().text()).isEqualTo("SECTION 5\nOrdinary working hours may not exceed 40 hours per week.");
+    }
+
+    @Test
+    public void testShortLinesInsideParagraphsAreNotHeadings() {
+        List<TextSegment> segments = split("""
+                Standard Working Hours
+                Overtime is paid for
+                every hour above 40 per week.
+
+                Contact your manager
+                """);
+
+        assertThat(segments).hasSize(1);
+        assertThat(segments.getFirst().metadata().getString("heading")).isNull();
+        assertThat(segments.getFirst().text()).startsWith("Standard Working Hours\n").endsWith("Contact your manager");
+    }
+
+    @Test
+    public void testOversizedSectionIsSplitFurther() {
+        String sentence = "Overtime must be compensated with extra pay or time off in lieu. ";
+        List<TextSegment> segments = split("# Overtime\n" + sentence.repeat(10).strip() + "\n");
+
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(segments).allSatisfy(segment -> {
+            assertThat(segment.text()).startsWith("Overtime\n");
+            assertThat(segment.text().length()).isLessThanOrEqualTo(200);
+            assertThat(segment.metadata().getString("heading")).isEqualTo("Overtime");
+        });
+        assertThat(String.join(" ", segments.stream().map(segment -> segment.text().substring("Overtime\n".length())).toList()))
+                .isEqualTo(sentence.repeat(10).strip());
+    }
+
+    @Test
+    public void testHeadingTooLongForThePrefixIsOnlyMetadata() {
+        String heading = "Compensation for overtime, on-call duty, travel time and work on weekends and public holidays in the retail sector";
+        List<TextSegment> segments = split("# " + heading + "\nOvertime is compensated with extra pay.\n");
+
+        assertThat(segments).extracting(TextSegment::text).containsExactly("Overtime is compensated with extra pay.");
+        assertThat(segments.getFirst().metadata().getString("heading")).isEqualTo(heading);
+    }
+
+    @Test
+    public void testDocumentWithoutHeadings() {
+        List<TextSegment> segments = split("""
+                Employees are entitled to 25 days of vacation per year.
+
+                Vacation must be requested at least two months in advance.
+                """);
+
+        assertThat(segments).hasSize(1);
+        assertThat(segments.getFirst().text()).isEqualTo("""
+                Employees are entitled to 25 days of vacation per year.
+
+                Vacation must be requested at least two months in advance.""");
+        assertThat(segments.getFirst().metadata().getString("heading")).isNull();
+        assertThat(segments.getFirst().metadata().getString("file_name")).isEqualTo("act.md");
+    }
+
+    private List<TextSegment> split(String text) {
+        return splitter.split(Document.from(text, Metadata.from("file_name", "act.md")));
+    }
+}
@@ -0,0 +1,50 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+public class SessionStoreTest {
+
+    @Inject
+    SessionStore sessions;
+
+    @Test
+    public void testSessionRoundTrip() {
+        String token = sessions.create();
+        assertThat(SessionTokens.isValid(token)).isTrue();
+        assertThat(sessions.exists(token)).isTrue();
+        assertThat(sessions.getMessages(token)).isEmpty();
+        assertThat(sessions.getState(token).isIdentified()).isFalse();
+
+        List<ChatMessage> messages = List.of(UserMessage.from("I am Mick Doe"), AiMessage.from("Hello Mick!"));
+        sessions.updateMessages(token, messages);
+        ConversationState state = sessions.getState(token);
+        state.identified();
+        sessions.updateState(token, state);
+
+        // What another instance sees when the client reconnects there
+        assertThat(sessions.getMessages(token)).isEqualTo(messages);
+        assertThat(sessions.getState(token).isIdentified()).isTrue();
+        assertThat(sessions.getState(token).isCorrecting()).isFalse();
+
+        sessions.deleteMessages(token);
+        assertThat(sessions.getMessages(token)).isEmpty();
+        assertThat(sessions.getState(token).isIdentified()).isTrue();
+    }
+
+    @Test
+    public void testUnknownSession() {
+        assertThat(sessions.exists("AAAAAAAAAAAAAAAAAAAAAA")).isFalse();
+        assertThat(sessions.getMessages("AAAAAAAAAAAAAAAAAAAAAA")).isEmpty();
+        assertThat(sessions.getState("AAAAAAAAAAAAAAAAAAAAAA").isIdentified()).isFalse();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.loader.FileSystemDocumentLoader;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import io.quarkus.logging.Log;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the splitter strategies of {@link RagIngestion} on the documents under {@code benchmark.location}: number of
+ * segments, time to split and embed them, and how often the top segments retrieved for a set of questions
+ * contain the expected answer. The default corpus under {@code src/test/resources/benchmark} mixes Markdown and
+ * plain-text headings and is large enough for every strategy to split it into many segments.
+ * Run with {@code ./mvnw test -Dtest=SplitterBenchmark -Dbenchmark=true}.
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SplitterBenchmark {
+
+    private static final int MAX_RESULTS = 3;
+
+    private static final Map<String, String> QUESTIONS = Map.of(
+            "How many hours is a normal working week?", "40 hours per week",
+            "How long must my daily rest be?", "11 consecutive hours",
+            "How much rest do I get per week?", "36 consecutive hours",
+            "Can a union agree on a shorter workweek with my employer?", "collective agreements",
+            "Is a 37.5 hour workweek allowed?", "37.5-hour workweek",
+            "How many days of vacation do I get?", "25 days of annual leave",
+            "How much sick pay do I get?", "80 percent",
+            "What is the notice period if I resign?", "minimum notice period",
+            "How long can a probationary employment last?", "at most six months",
+            "How long can I work without a break?", "five hours in a row");
+
+    private static final List<Strategy> STRATEGIES = List.of(
+            new Strategy("recursive", 100, 25),
+            new Strategy("recursive", 500, 50),
+            new Strategy("paragraph", 500, 0),
+            new Strategy("section", 300, 0),
+            new Strategy("section", 500, 0));
+
+    @Inject
+    EmbeddingModel embeddingModel;
+
+    @ConfigProperty(name = "benchmark.location", defaultValue = "src/test/resources/benchmark")
+    Path documents;
+
+    @Test
+    void compareStrategies() {
+        List<Document> list = FileSystemDocumentLoader.loadDocumentsRecursively(documents);
+        for (Strategy strategy : STRATEGIES) {
+            InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+            EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                    .embeddingStore(store)
+                    .embeddingModel(embeddingModel)
+                    .documentSplitter(RagIngestion.splitter(strategy.name(), strategy.maxSegmentSize(), strategy.maxOverlapSize()))
+                    .build();
+            long start = System.nanoTime();
+            ingestor.ingest(list);
+            long ingestMillis = (System.nanoTime() - start) / 1_000_000;
+            int segments = countSegments(strategy, list);
+
+            int hits = 0;
+            for (Map.Entry<String, String> question : QUESTIONS.entrySet()) {
+                Embedding query = embeddingModel.embed(question.getKey()).content();
+                List<EmbeddingMatch<TextSegment>> matches = store.search(EmbeddingSearchRequest.builder()
+                        .queryEmbedding(query)
+                        .maxResults(MAX_RESULTS)
+                        .build()).matches();
+                if (matches.stream().anyMatch(match -> match.embedded().text().contains(question.getValue()))) {
+                    hits++;
+                }
+            }
+            Log.infof("%s(%d, %d): %d segments, ingested in %d ms, hit rate %d/%d",
+                    strategy.name(), strategy.maxSegmentSize(), strategy.maxOverlapSize(),
+                    segments, ingestMillis, hits, QUESTIONS.size());
+            assertThat(segments).isGreaterThan(list.size());
+        }
+    }
+
+    private static int countSegments(Strategy strategy, List<Document> list) {
+        return list.stream()
+                .mapToInt(document -> RagIngestion.splitter(strategy.name(), strategy.maxSegmentSize(), strategy.maxOverlapSize())
+                        .split(document).size())
+                .sum();
+    }
+
+    private record Strategy(String name, int maxSegmentSize, int maxOverlapSize) {
+    }
+}
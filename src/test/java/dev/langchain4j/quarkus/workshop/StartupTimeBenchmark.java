@@ -0,0 +1,92 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the time from process launch until the packaged application serves its first HTTP request.
+ * Uses the native executable when one has been built ({@code -Dnative}), otherwise the JVM application,
+ * with its AppCDS archive if present ({@code -Dappcds}). The datasource and API key are taken from the
+ * environment, as in production.
+ * Run with {@code ./mvnw package -DskipTests && ./mvnw test -Dtest=StartupTimeBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupTimeBenchmark {
+
+    private static final int RUNS = 5;
+    private static final int PORT = 8089;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(100)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        List<String> command = command();
+        assumeTrue(command != null, "Package the application first");
+
+        List<Long> timings = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            timings.add(measure(command));
+        }
+        timings.sort(null);
+        Log.infof("%s: min %d ms, median %d ms", command.getFirst(), timings.getFirst(), timings.get(RUNS / 2));
+        assertThat(timings.getFirst()).isLessThan(TIMEOUT.toMillis());
+    }
+
+    private long measure(List<String> command) throws Exception {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/_importmap/dynamic.importmap")).build();
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application did not start within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> command() {
+        Path nativeRunner = Path.of("target", "registertimely-1.0.0-runner");
+        if (Files.isExecutable(nativeRunner)) {
+            return List.of(nativeRunner.toString(), "-Dquarkus.http.port=" + PORT);
+        }
+        Path jar = Path.of("target", "quarkus-app", "quarkus-run.jar");
+        if (!Files.exists(jar)) {
+            return null;
+        }
+        List<String> command = new ArrayList<>(List.of("java", "-Dquarkus.http.port=" + PORT));
+        Path archive = Path.of("target", "quarkus-app", "app-cds.jsa");
+        if (Files.exists(archive)) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+}
@@ -0,0 +1,114 @@
+package dev.langchain4j.quarkus.workshop;
+
+import io.quarkus.logging.Log;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures agent turns and tool calls per second per core for many concurrent {@code /timereport-agent} sessions
+ * against {@link ScriptedChatModel}, with a worker pool of {@value #WORKER_THREADS} threads and a connection pool
+ * large enough that only the threading model of the turns limits throughput. Run it once per model and compare the
+ * logged rates:
+ * {@code ./mvnw test -Dtest=ToolThroughputBenchmark -Dbenchmark=true} for virtual threads and
+ * {@code ./mvnw test -Dtest=ToolThroughputBenchmark -Dbenchmark=true -DVIRTUAL_THREADS_ENABLED=false} for the
+ * worker pool.
+ */
+@QuarkusTest
+@TestProfile(ToolThroughputBenchmark.ThroughputProfile.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ToolThroughputBenchmark {
+
+    private static final int SESSIONS = 500;
+    private static final int WORKER_THREADS = 20;
+    private static final int CONNECTIONS = 150;
+    // Registering a week finds the person and creates five entries, listing the month is a single tool call
+    private static final List<Map.Entry<String, String>> CONVERSATION = List.of(
+            Map.entry("I am Alice Smith, please register my week", "I have registered 8 hours"),
+            Map.entry("Show me this month", "Here are your time entries"));
+    private static final int TOOL_CALLS_PER_SESSION = 7;
+    private static final long REPLY_TIMEOUT_SECONDS = 120;
+
+    public static class ThroughputProfile implements QuarkusTestProfile {
+        @Override
+        public String getConfigProfile() {
+            return "loadtest";
+        }
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "agent.fake-model.latency", "20ms",
+                    "quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS),
+                    "quarkus.datasource.jdbc.max-size", String.valueOf(CONNECTIONS),
+                    "quarkus.datasource.devservices.command", "postgres -c max_connections=" + (CONNECTIONS + 50));
+        }
+    }
+
+    @TestHTTPResource("/timereport-agent")
+    URI agent;
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled")
+    boolean virtualThreads;
+
+    @Test
+    void toolThroughput() throws Exception {
+        URI uri = URI.create(agent.toString().replaceFirst("^http", "ws"));
+        HttpClient client = HttpClient.newHttpClient();
+
+        // Warm up the JIT, the connection pool and the session store before measuring
+        runSessions(client, uri, SESSIONS / 10);
+        long start = System.nanoTime();
+        runSessions(client, uri, SESSIONS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        Log.infof("%s: %d sessions in %.1f s, %.1f turns/s/core, %.1f tool calls/s/core",
+                virtualThreads ? "Virtual threads" : "Worker pool", SESSIONS, seconds,
+                SESSIONS * CONVERSATION.size() / seconds / cores, SESSIONS * TOOL_CALLS_PER_SESSION / seconds / cores);
+    }
+
+    private static void runSessions(HttpClient client, URI uri, int sessions) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                running.add(executor.submit(() -> {
+                    BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+                    WebSocket webSocket = client.newWebSocketBuilder()
+                            .buildAsync(uri, new AgentLoadTest.Collector(replies)).join();
+                    assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                            .startsWith(CustomerSupportAgentWebSocket.SESSION_PREFIX);
+                    assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS)).startsWith("Welcome");
+                    for (Map.Entry<String, String> turn : CONVERSATION) {
+                        webSocket.sendText(turn.getKey(), true).join();
+                        assertThat(replies.poll(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS)).startsWith(turn.getValue());
+                    }
+                    webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+                    return null;
+                }));
+            }
+            for (Future<?> session : running) {
+                session.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.langchain4j.quarkus.workshop;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+public class TurnToolProviderTest {
+
+    @Inject
+    TurnToolProvider toolProvider;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    SessionStore sessions;
+
+    private String token;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        personRepository.createPerson("Alice", "Smith");
+        personRepository.createPerson("Bob", "Jones");
+        token = sessions.create();
+    }
+
+    @AfterEach
+    @Transactional
+    void tearDown() {
+        toolProvider.forget(token);
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void testMentioningAnotherPersonDoesNotIdentifyTheUser() {
+        assertThat(toolNames("Please move Bob Jones's hours from Project Apollo to Maintenance"))
+                .contains("findByName")
+                .doesNotContain("createReportedTime", "moveReportedTimes");
+
+        // Looking up the colleague does not identify the user either
+        execute("findByName", "{\"firstName\": \"Bob\", \"lastName\": \"Jones\"}");
+        assertThat(toolNames("He is off sick this week")).doesNotContain("createReportedTime");
+        assertThat(sessions.getState(token).isIdentified()).isFalse();
+
+        assertThat(toolNames("I am Alice Smith")).contains("createReportedTime", "moveReportedTimes");
+        assertThat(sessions.getState(token).isIdentified()).isTrue();
+    }
+
+    @Test
+    public void testNameGivenWhenAskedIdentifiesTheUser() {
+        assertThat(toolNames("Hi, I want to register my hours")).doesNotContain("createReportedTime");
+        assertThat(toolNames("Alice Smith")).contains("createReportedTime").doesNotContain("moveReportedTimes");
+    }
+
+    @Test
+    public void testNewPersonIsIdentifiedOnceCreated() {
+        assertThat(toolNames("My name is Carol White")).doesNotContain("createReportedTime");
+
+        execute("createPerson", "{\"firstName\": \"Carol\", \"lastName\": \"White\"}");
+        assertThat(toolNames("Register 8 hours for today")).contains("createReportedTime");
+    }
+
+    private List<String> toolNames(String message) {
+        return tools(message).keySet().stream().map(ToolSpecification::name).toList();
+    }
+
+    private Map<ToolSpecification, ToolExecutor> tools(String message) {
+        return toolProvider.provideTools(new ToolProviderRequest(token, UserMessage.from(message))).tools();
+    }
+
+    private void execute(String tool, String arguments) {
+        tools("Thanks").entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(tool))
+                .findFirst().orElseThrow()
+                .getValue().execute(ToolExecutionRequest.builder().name(tool).arguments(arguments).build(), token);
+    }
+}